@@ -0,0 +1,43 @@
+package com.andreychh.lox.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.andreychh.lox.collection.AppendOnlyList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures appending elements one by one to the most recent instance of an {@link AppendOnlyList}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AppendOnlyListBenchmark {
+    @Param({"1000", "100000"})
+    public int size;
+
+    /**
+     * Appends the given number of elements to an empty list.
+     *
+     * @return the full list
+     */
+    @Benchmark
+    public AppendOnlyList<Integer> append() {
+        AppendOnlyList<Integer> list = new AppendOnlyList<>();
+        for (int i = 0; i < this.size; i++) {
+            list = list.with(i);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,41 @@
+package com.andreychh.lox.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.openjdk.jmh.Main;
+
+/**
+ * Runs the benchmarks with the allocation profiler enabled.
+ * <p>
+ * Hands the usual JMH command line over to the JMH launcher, adding {@code -prof gc} unless the command line already
+ * asks for it, so a subset of benchmarks and parameters can be chosen, and options such as {@code -l} and {@code -h}
+ * list the benchmarks or print help without running anything:
+ * <p>
+ * {@snippet :
+ * java -jar target/benchmarks.jar LexingBenchmark -p size=10000
+ *}
+ */
+public final class Benchmarks {
+    /**
+     * Prevents instantiation of the launcher.
+     */
+    private Benchmarks() {
+    }
+
+    /**
+     * Runs the JMH launcher on the given command line with the allocation profiler added.
+     *
+     * @param args the JMH command line
+     * @throws IOException if JMH cannot write its output
+     */
+    public static void main(final String[] args) throws IOException {
+        List<String> command = new ArrayList<>(Arrays.asList(args));
+        if (!String.join(" ", command).contains("-prof gc")) {
+            command.addAll(0, List.of("-prof", "gc"));
+        }
+        Main.main(command.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,109 @@
+package com.andreychh.lox.benchmark;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates synthetic Lox source text with a chosen mix of tokens.
+ * <p>
+ * The text is assembled from fragments picked at random with a fixed seed, so every run of a benchmark lexes the same
+ * characters.
+ * <p>
+ * {@snippet :
+ * String code = new Corpus(Corpus.Mix.MIXED, 42L).text(1_000_000);
+ *}
+ */
+public final class Corpus {
+    private final Mix mix;
+    private final long seed;
+
+    /**
+     * Constructs a generator of the given mix.
+     *
+     * @param mix  the kind of tokens the text is made of
+     * @param seed the seed of the fragment choice
+     */
+    public Corpus(final Mix mix, final long seed) {
+        this.mix = mix;
+        this.seed = seed;
+    }
+
+    /**
+     * Generates a text of about the given length.
+     *
+     * @param size the minimum number of characters
+     * @return the text, ending after a whole fragment
+     */
+    public String text(final int size) {
+        Random random = new Random(this.seed);
+        List<String> fragments = this.mix.fragments();
+        StringBuilder text = new StringBuilder(size);
+        while (text.length() < size) {
+            text.append(fragments.get(random.nextInt(fragments.size())));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Represents the kinds of text a corpus can be made of.
+     */
+    public enum Mix {
+        /**
+         * Statements as found in ordinary programs.
+         */
+        MIXED(
+            "var count = 0;\n",
+            "print \"Hello, world!\";\n",
+            "fun add(a, b) {\n    return a + b;\n}\n",
+            "// A line comment explaining the next statement.\n",
+            "if (count >= 10 and limit != nil) {\n    count = count - 1;\n}\n",
+            "class Point {\n    init(x, y) {\n        this.x = x;\n        this.y = y;\n    }\n}\n",
+            "while (index < 3.14159) index = index + 0.5;\n"
+        ),
+
+        /**
+         * Identifiers and keywords.
+         */
+        IDENTIFIERS("alpha ", "beta_2 ", "counter ", "x ", "and ", "while ", "this ", "superclass ", "fun "),
+
+        /**
+         * Integer and decimal literals.
+         */
+        NUMBERS("0 ", "42 ", "3.14159 ", "1234567890 ", "0.5 ", "100.25 "),
+
+        /**
+         * String literals.
+         */
+        STRINGS("\"hello\" ", "\"a longer string literal with spaces\" ", "\"multi\nline\" ", "\"\" "),
+
+        /**
+         * Punctuation and one- or two-character operators.
+         */
+        OPERATORS("( ", ") ", "+ ", "- ", "== ", "!= ", "<= ", ">= ", "{ ", "} ", "; ", ", ", ". ", "! ", "/ "),
+
+        /**
+         * Comments and blank space.
+         */
+        COMMENTS("// a line comment with a few words in it\n", "\n", "    \t\n", "//\n");
+
+        private final List<String> fragments;
+
+        /**
+         * Constructs a mix of the given fragments.
+         *
+         * @param fragments the pieces of text the corpus is assembled from
+         */
+        Mix(final String... fragments) {
+            this.fragments = List.of(fragments);
+        }
+
+        /**
+         * Returns the fragments of the mix.
+         *
+         * @return the pieces of text the corpus is assembled from
+         */
+        List<String> fragments() {
+            return this.fragments;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.andreychh.lox.benchmark;
+
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import com.andreychh.lox.lexing.FastLexer;
+import com.andreychh.lox.lexing.IncrementalLexingFSM;
+import com.andreychh.lox.lexing.LexingFSM;
+import com.andreychh.lox.lexing.LexingResult;
+import com.andreychh.lox.lexing.ParallelLexingFSM;
+import com.andreychh.lox.lexing.TextEdit;
+import com.andreychh.lox.source.MappedSource;
+import com.andreychh.lox.source.StreamingSource;
+import com.andreychh.lox.source.TextSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures lexing of synthetic corpora of varying size and token mix, through every source and lexer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LexingBenchmark {
+    private static final long SEED = 42L;
+
+    @Param({"10000", "1000000"})
+    public int size;
+
+    @Param({"MIXED", "IDENTIFIERS", "NUMBERS", "STRINGS", "OPERATORS", "COMMENTS"})
+    public String mix;
+
+    private String text;
+    private ByteBuffer bytes;
+    private LexingResult lexed;
+
+    /**
+     * Generates the corpus and lexes it once for the incremental benchmark.
+     */
+    @Setup
+    public void setUp() {
+        this.text = new Corpus(Corpus.Mix.valueOf(this.mix), SEED).text(this.size);
+        this.bytes = ByteBuffer.wrap(this.text.getBytes(StandardCharsets.UTF_8));
+        this.lexed = new LexingFSM(new TextSource(this.text)).tokenize();
+    }
+
+    /**
+     * Lexes a string held in memory.
+     *
+     * @return the lexing result
+     */
+    @Benchmark
+    public LexingResult tokenize() {
+        return new LexingFSM(new TextSource(this.text)).tokenize();
+    }
+
+    /**
+     * Lexes a string held in memory with the mutable-cursor lexer.
+     *
+     * @return the lexing result
+     */
+    @Benchmark
+    public LexingResult tokenizeFast() {
+        return new FastLexer(this.text).tokenize();
+    }
+
+    /**
+     * Lexes a string held in memory on all cores.
+     *
+     * @return the lexing result
+     */
+    @Benchmark
+    public LexingResult tokenizeParallel() {
+        return new ParallelLexingFSM(this.text).tokenize();
+    }
+
+    /**
+     * Lexes UTF-8 bytes decoded on demand, as for a memory-mapped file.
+     *
+     * @return the lexing result
+     */
+    @Benchmark
+    public LexingResult tokenizeMapped() {
+        return new LexingFSM(new MappedSource(this.bytes.duplicate())).tokenize();
+    }
+
+    /**
+     * Lexes a reader through a bounded window.
+     *
+     * @return the lexing result
+     */
+    @Benchmark
+    public LexingResult tokenizeStreaming() {
+        return new LexingFSM(new StreamingSource(new StringReader(this.text))).tokenize();
+    }
+
+    /**
+     * Re-lexes the corpus after a one-character edit in its middle.
+     *
+     * @return the lexing result of the edited text
+     */
+    @Benchmark
+    public LexingResult relexEdit() {
+        return new IncrementalLexingFSM(this.lexed, this.text, new TextEdit(this.text.length() / 2, 0, " ")).tokenize();
+    }
+}
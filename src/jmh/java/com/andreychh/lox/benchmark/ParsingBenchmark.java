@@ -0,0 +1,72 @@
+package com.andreychh.lox.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.andreychh.lox.lexing.LexingFSM;
+import com.andreychh.lox.parsing.Parser;
+import com.andreychh.lox.parsing.ParsingReport;
+import com.andreychh.lox.source.TextSource;
+import com.andreychh.lox.token.Token;
+import com.andreychh.lox.token.stream.ListTokenStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures parsing of pre-lexed expressions, either flat chains of operators or deeply nested groupings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParsingBenchmark {
+    @Param({"16", "256"})
+    public int operands;
+
+    @Param({"FLAT", "NESTED"})
+    public String shape;
+
+    private List<Token> tokens;
+
+    /**
+     * Generates and lexes the expression.
+     */
+    @Setup
+    public void setUp() {
+        StringBuilder code = new StringBuilder();
+        if ("FLAT".equals(this.shape)) {
+            code.append('1');
+            for (int i = 1; i < this.operands; i++) {
+                code.append(i % 2 == 0 ? " + " : " * ").append(i);
+            }
+        } else {
+            code.append("(".repeat(this.operands));
+            for (int i = 0; i < this.operands; i++) {
+                code.append(i).append(i % 2 == 0 ? " - " : " / ");
+            }
+            code.append(-1).append(")".repeat(this.operands));
+        }
+        this.tokens = new LexingFSM(new TextSource(code.toString())).tokenize().tokens();
+    }
+
+    /**
+     * Parses the tokens of the expression.
+     *
+     * @return the parsing report
+     */
+    @Benchmark
+    public ParsingReport parse() {
+        return new Parser(new ListTokenStream(this.tokens)).parse();
+    }
+}
@@ -0,0 +1,77 @@
+package com.andreychh.lox.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.andreychh.lox.Position;
+import com.andreychh.lox.parsing.expression.BinaryExpression;
+import com.andreychh.lox.parsing.expression.Expression;
+import com.andreychh.lox.parsing.expression.GroupingExpression;
+import com.andreychh.lox.parsing.expression.LiteralExpression;
+import com.andreychh.lox.parsing.operation.PrintOperation;
+import com.andreychh.lox.token.ExplicitToken;
+import com.andreychh.lox.token.Token;
+import com.andreychh.lox.token.TokenType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures printing of balanced expression trees of varying depth.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrintingBenchmark {
+    @Param({"4", "12"})
+    public int depth;
+
+    private Expression expression;
+
+    /**
+     * Builds the expression tree.
+     */
+    @Setup
+    public void setUp() {
+        this.expression = PrintingBenchmark.tree(this.depth);
+    }
+
+    /**
+     * Prints the expression tree.
+     *
+     * @return the printed expression
+     */
+    @Benchmark
+    public String print() {
+        return this.expression.perform(new PrintOperation());
+    }
+
+    /**
+     * Builds a balanced tree of sums with grouped operands.
+     *
+     * @param depth the number of levels of binary expressions
+     * @return the root of the tree
+     */
+    private static Expression tree(final int depth) {
+        Position position = new Position(1, 1);
+        if (depth == 0) {
+            return new LiteralExpression(new ExplicitToken(TokenType.NUMBER, "42", position));
+        }
+        Token plus = new ExplicitToken(TokenType.PLUS, "+", position);
+        return new BinaryExpression(
+            plus,
+            new GroupingExpression(PrintingBenchmark.tree(depth - 1)),
+            PrintingBenchmark.tree(depth - 1)
+        );
+    }
+}
@@ -0,0 +1,102 @@
+package com.andreychh.lox.benchmark;
+
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import com.andreychh.lox.source.CharClass;
+import com.andreychh.lox.source.MappedSource;
+import com.andreychh.lox.source.Source;
+import com.andreychh.lox.source.StreamingSource;
+import com.andreychh.lox.source.TextSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the character scanning primitives of every kind of source over a long run of one character class.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScanningBenchmark {
+    private static final CharClass LETTERS = new CharClass('a', 'z');
+
+    @Param({"100000"})
+    public int size;
+
+    @Param({"TEXT", "MAPPED", "STREAMING"})
+    public String kind;
+
+    private String text;
+    private ByteBuffer bytes;
+
+    /**
+     * Generates a run of letters ending with a line break, and its UTF-8 encoding.
+     */
+    @Setup
+    public void setUp() {
+        this.text = "abcdefghij".repeat(this.size / 10) + '\n';
+        this.bytes = ByteBuffer.wrap(this.text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Counts the leading letters with a single call.
+     *
+     * @return the number of letters
+     */
+    @Benchmark
+    public int span() {
+        return this.source().span(0, LETTERS);
+    }
+
+    /**
+     * Finds the line break with a single call.
+     *
+     * @return the offset of the line break
+     */
+    @Benchmark
+    public int find() {
+        return this.source().find(0, '\n');
+    }
+
+    /**
+     * Counts the leading letters one character at a time.
+     *
+     * @return the number of letters
+     */
+    @Benchmark
+    public int peekChar() {
+        Source source = this.source();
+        int count = 0;
+        while (source.hasNext(count + 1) && LETTERS.contains(source.peekChar(count))) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Opens a fresh source of the chosen kind over the text.
+     *
+     * @return the source at the start of the text
+     */
+    private Source source() {
+        return switch (this.kind) {
+            case "MAPPED" -> new MappedSource(this.bytes.duplicate());
+            case "STREAMING" -> new StreamingSource(new StringReader(this.text));
+            default -> new TextSource(this.text);
+        };
+    }
+}
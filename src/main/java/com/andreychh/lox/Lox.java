@@ -3,14 +3,32 @@ package com.andreychh.lox;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
 import com.andreychh.lox.lexing.LexingFSM;
 import com.andreychh.lox.lexing.LexingResult;
+import com.andreychh.lox.lexing.ParallelLexingFSM;
+import com.andreychh.lox.lexing.TokenCache;
+import com.andreychh.lox.lexing.monitor.CountingMonitor;
+import com.andreychh.lox.lexing.monitor.LexingMonitor;
+import com.andreychh.lox.lexing.monitor.SilentMonitor;
 import com.andreychh.lox.source.Source;
 import com.andreychh.lox.source.TextSource;
+import com.andreychh.lox.source.Utf8Text;
 
 /**
  * The main Lox interpreter application class.
@@ -19,38 +37,121 @@ import com.andreychh.lox.source.TextSource;
  * determine the execution mode.
  */
 public final class Lox {
+    private static final long MAPPING_THRESHOLD = 64L * 1024 * 1024;
+    private static final long CACHE_CAPACITY = 256L * 1024 * 1024;
+    private static final String STATS_BEAN = "com.andreychh.lox:type=LexingStats";
+    private static final int MAX_ERRORS = 100;
+
     private final String[] args;
+    private final long mappingThreshold;
 
     /**
      * Constructs a new Lox application instance.
      *
+     * @param args             The command-line arguments.
+     * @param mappingThreshold The size in bytes above which script files are memory-mapped instead of read into memory.
+     */
+    public Lox(final String[] args, final long mappingThreshold) {
+        this.args = args.clone();
+        this.mappingThreshold = mappingThreshold;
+    }
+
+    /**
+     * Constructs a new Lox application instance that memory-maps script files larger than 64 MiB.
+     *
      * @param args The command-line arguments.
      */
     public Lox(final String[] args) {
-        this.args = args.clone();
+        this(args, MAPPING_THRESHOLD);
     }
 
     /**
      * Executes the interpreter based on the provided arguments.
      * <p>
-     * If no arguments are provided, it starts the REPL. Otherwise, it attempts to run the script specified by the first
-     * argument.
+     * If no script is given, it starts the REPL. Otherwise, it attempts to run the script specified by the first
+     * argument that is not an option. The option {@code --cache=DIR} keeps lexing results of scripts in the given
+     * directory, so unchanged scripts are not lexed again. The option {@code --stats} prints lexing statistics after
+     * every result and publishes them as a JMX MBean. The option {@code --max-errors=N} stops lexing at the first
+     * error beyond {@code N}, {@code 100} by default.
      */
     public void exec() {
-        if (this.args.length == 0) {
-            this.runREPL();
+        List<String> scripts = Arrays.stream(this.args).filter(arg -> !arg.startsWith("--")).toList();
+        LexingMonitor monitor = this.monitor();
+        if (scripts.isEmpty()) {
+            this.runREPL(monitor);
         } else {
-            this.runFile(this.args[0]);
+            this.runFile(scripts.getFirst(), monitor);
         }
     }
 
+    /**
+     * Returns the monitor of lexing runs requested by the command line.
+     * <p>
+     * With {@code --stats}, the counting monitor is registered with the platform MBean server, replacing the one of an
+     * earlier instance in the same JVM.
+     *
+     * @return A counting monitor if statistics were requested, a silent one otherwise
+     */
+    private LexingMonitor monitor() {
+        if (!Arrays.asList(this.args).contains("--stats")) {
+            return new SilentMonitor();
+        }
+        CountingMonitor stats = new CountingMonitor();
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(STATS_BEAN);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(stats, name);
+        } catch (JMException e) {
+            throw new RuntimeException("Could not register the lexing statistics MBean", e);
+        }
+        return stats;
+    }
+
+    /**
+     * Returns the value of a command-line option given as {@code --name=value}.
+     *
+     * @param name The name of the option
+     * @return The value of the first occurrence of the option, or nothing if it is not given
+     */
+    private Optional<String> option(final String name) {
+        String prefix = "--%s=".formatted(name);
+        return Arrays.stream(this.args)
+            .filter(arg -> arg.startsWith(prefix))
+            .map(arg -> arg.substring(prefix.length()))
+            .findFirst();
+    }
+
+    /**
+     * Returns the number of errors beyond which lexing stops.
+     *
+     * @return The value of the {@code --max-errors} option, or {@code 100} if it is not given
+     * @throws IllegalArgumentException If the option is not a whole number of at least {@code 1}
+     */
+    private int limit() {
+        String value = this.option("max-errors").orElse(Integer.toString(MAX_ERRORS));
+        try {
+            int limit = Integer.parseInt(value);
+            if (limit >= 1) {
+                return limit;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below, like a number below one.
+        }
+        throw new IllegalArgumentException("Option --max-errors must be at least 1, got '%s'".formatted(value));
+    }
+
     /**
      * Starts an interactive Read-Eval-Print Loop (REPL).
      * <p>
      * It reads lines of code from the standard input, executes them, and prints the results until the program is
      * terminated.
+     *
+     * @param monitor The monitor of the lexing runs
      */
-    private void runREPL() {
+    private void runREPL(final LexingMonitor monitor) {
         try (BufferedReader reader = new BufferedReader(new InputStreamReader(System.in, Charset.defaultCharset()))) {
             while (true) {
                 System.out.print(">>> ");
@@ -58,7 +159,7 @@ public final class Lox {
                 if (line == null) {
                     break;
                 }
-                this.run(new TextSource(line));
+                this.run(new TextSource(line), monitor);
             }
         } catch (IOException e) {
             throw new RuntimeException("Error reading from input", e);
@@ -67,28 +168,71 @@ public final class Lox {
 
     /**
      * Executes a Lox script from a file.
+     * <p>
+     * Files larger than the mapping threshold are memory-mapped and decoded as UTF-8 on the fly, so their contents are
+     * never copied to the heap as a whole. Smaller files are read into memory and lexed on all available cores,
+     * straight from their UTF-8 bytes, without decoding them into a string first. With a cache directory, a script
+     * whose content was lexed before is loaded from the cache instead.
      *
-     * @param path The path to the script file
+     * @param path    The path to the script file
+     * @param monitor The monitor of the lexing runs
      */
-    private void runFile(final String path) {
+    private void runFile(final String path, final LexingMonitor monitor) {
+        Path file = Paths.get(path);
         try {
-            byte[] bytes = Files.readAllBytes(Paths.get(path));
-            this.run(new TextSource(new String(bytes, Charset.defaultCharset())));
+            boolean large = Files.size(file) > this.mappingThreshold;
+            int limit = this.limit();
+            ByteBuffer bytes = large ? this.mapped(file) : ByteBuffer.wrap(Files.readAllBytes(file));
+            Function<CharSequence, LexingResult> lexer = large
+                ? text -> new LexingFSM(new TextSource(text), monitor, limit).tokenize()
+                : text -> new ParallelLexingFSM(text, monitor, limit).tokenize();
+            String options = "max-errors=%d".formatted(limit);
+            this.report(
+                this.option("cache")
+                    .map(directory -> new TokenCache(Paths.get(directory), CACHE_CAPACITY, options))
+                    .map(cache -> cache.tokenize(bytes, lexer))
+                    .orElseGet(() -> lexer.apply(new Utf8Text(bytes))),
+                monitor
+            );
         } catch (IOException e) {
             throw new RuntimeException("Could not read file '%s'".formatted(path), e);
         }
     }
 
+    /**
+     * Memory-maps a script file.
+     *
+     * @param file The path to the script file
+     * @return The bytes of the mapped file
+     * @throws IOException If the file cannot be opened or mapped
+     */
+    private ByteBuffer mapped(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
     /**
      * Runs the lexical analysis on a given source and prints the result.
      *
-     * @param source The source code to process
+     * @param source  The source code to process
+     * @param monitor The monitor of the lexing run
+     */
+    private void run(final Source source, final LexingMonitor monitor) {
+        this.report(new LexingFSM(source, monitor, this.limit()).tokenize(), monitor);
+    }
+
+    /**
+     * Prints the result of the lexical analysis, followed by what the monitor observed.
+     *
+     * @param result  The tokens and errors to print
+     * @param monitor The monitor of the lexing runs
      */
-    private void run(final Source source) {
-        LexingResult result = new LexingFSM(source).tokenize();
+    private void report(final LexingResult result, final LexingMonitor monitor) {
         System.out.println("Errors:");
         result.errors().forEach(e -> System.out.println(e.format()));
         System.out.println("Tokens:");
         result.tokens().forEach(t -> System.out.println(t.toString()));
+        monitor.report(System.out);
     }
 }
@@ -0,0 +1,116 @@
+package com.andreychh.lox.collection;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents an immutable, append-only sequence whose instances share a single backing store.
+ * <p>
+ * Appending to the most recent instance writes into the shared store in amortized constant time and returns a longer
+ * view of it, while every older instance keeps seeing only its own prefix. Appending to an older instance (a branch)
+ * first copies its prefix into a fresh store, so each instance behaves as an independent immutable value.
+ * <p>
+ * {@snippet :
+ * AppendOnlyList<String> empty = new AppendOnlyList<>();
+ * AppendOnlyList<String> one = empty.with("a");  // ["a"]
+ * AppendOnlyList<String> two = one.with("b");    // ["a", "b"], shares the store with one
+ * AppendOnlyList<String> other = one.with("c");  // ["a", "c"], copies the store
+ *}
+ *
+ * @param <T> the type of elements
+ */
+public final class AppendOnlyList<T> {
+    private final List<T> store;
+    private final int size;
+
+    /**
+     * Constructs a view of the first {@code size} elements of the given store.
+     *
+     * @param store the backing store shared between instances
+     * @param size  the number of elements visible through this instance
+     */
+    private AppendOnlyList(final List<T> store, final int size) {
+        this.store = store;
+        this.size = size;
+    }
+
+    /**
+     * Constructs a list holding a copy of the given elements.
+     *
+     * @param elements the initial elements
+     */
+    public AppendOnlyList(final List<T> elements) {
+        this(new ArrayList<>(elements), elements.size());
+    }
+
+    /**
+     * Constructs an empty list.
+     */
+    public AppendOnlyList() {
+        this(new ArrayList<>(), 0);
+    }
+
+    /**
+     * Returns a new list with the specified element appended.
+     *
+     * @param element the element to append
+     * @return a new list containing all elements of this one followed by {@code element}
+     */
+    public AppendOnlyList<T> with(final T element) {
+        synchronized (this.store) {
+            if (this.store.size() == this.size) {
+                this.store.add(element);
+                return new AppendOnlyList<>(this.store, this.size + 1);
+            }
+        }
+        return this.withAll(List.of(element));
+    }
+
+    /**
+     * Returns a new list with all elements of another list appended.
+     *
+     * @param other the list whose elements will be appended
+     * @return a new list containing all elements of this one followed by all elements of {@code other}
+     */
+    public AppendOnlyList<T> withAll(final AppendOnlyList<T> other) {
+        return this.withAll(other.asList());
+    }
+
+    /**
+     * Returns the number of elements in this list.
+     *
+     * @return the number of elements
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the elements of this list.
+     *
+     * @return an unmodifiable snapshot of the elements in order of appending
+     */
+    public List<T> asList() {
+        synchronized (this.store) {
+            return List.copyOf(this.store.subList(0, this.size));
+        }
+    }
+
+    /**
+     * Appends the given elements, reusing the shared store when this instance is its most recent view.
+     *
+     * @param elements the elements to append
+     * @return a new list containing all elements of this one followed by {@code elements}
+     */
+    private AppendOnlyList<T> withAll(final List<T> elements) {
+        synchronized (this.store) {
+            if (this.store.size() == this.size) {
+                this.store.addAll(elements);
+                return new AppendOnlyList<>(this.store, this.store.size());
+            }
+            List<T> branch = new ArrayList<>(this.store.subList(0, this.size));
+            branch.addAll(elements);
+            return new AppendOnlyList<>(branch, branch.size());
+        }
+    }
+}
@@ -1,16 +1,48 @@
 package com.andreychh.lox.error;
 
 import com.andreychh.lox.Position;
+import com.andreychh.lox.source.PositionResolver;
 
 /**
  * Represents an error encountered during lexical analysis.
  * <p>
- * This class encapsulates an error message and the position in the source
- * code where the error occurred.
+ * This class encapsulates an error message and the offset in the source
+ * code where the error occurred. The offset is resolved into a line and
+ * column only when the error is formatted. An error may span a range of
+ * characters, such as a run of unexpected ones, and is then formatted
+ * with the positions of its first and last character.
  */
 public final class Error {
     private final String message;
-    private final Position position;
+    private final int offset;
+    private final int length;
+    private final PositionResolver positions;
+
+    /**
+     * Creates a new error spanning the given characters of the source code.
+     *
+     * @param message   The error message describing what went wrong
+     * @param offset    The offset in the source code where the error starts
+     * @param length    The number of characters the error spans
+     * @param positions The resolver turning source offsets into positions
+     */
+    public Error(final String message, final int offset, final int length, final PositionResolver positions) {
+        this.message = message;
+        this.offset = offset;
+        this.length = length;
+        this.positions = positions;
+    }
+
+    /**
+     * Creates a new error with the specified message and source offset.
+     *
+     * @param message   The error message describing what went wrong
+     * @param offset    The offset in the source code where the error occurred
+     * @param positions The resolver turning source offsets into positions
+     */
+    public Error(final String message, final int offset, final PositionResolver positions) {
+        this(message, offset, 1, positions);
+    }
 
     /**
      * Creates a new error with the specified message and position.
@@ -19,16 +51,57 @@ public final class Error {
      * @param position The position in the source code where the error occurred
      */
     public Error(final String message, final Position position) {
-        this.message = message;
-        this.position = position;
+        this(message, 0, offset -> position);
+    }
+
+    /**
+     * Returns the description of the error, without its position.
+     *
+     * @return The error message
+     */
+    public String message() {
+        return this.message;
+    }
+
+    /**
+     * Returns the offset in the source code where the error occurred.
+     *
+     * @return The offset of the error, {@code 0} for an error created from a position
+     */
+    public int offset() {
+        return this.offset;
+    }
+
+    /**
+     * Returns the number of characters the error spans.
+     *
+     * @return The length of the range of the error, {@code 1} for an error at a single place
+     */
+    public int length() {
+        return this.length;
+    }
+
+    /**
+     * Creates the same error moved to another place in an edited source.
+     *
+     * @param delta    The number of characters to add to the offset
+     * @param resolver The resolver of positions in the edited source
+     * @return A new error with the same message at the moved offset
+     */
+    public Error moved(final int delta, final PositionResolver resolver) {
+        return new Error(this.message, this.offset + delta, this.length, resolver);
     }
 
     /**
      * Returns a formatted string representation of the error.
      *
-     * @return A string containing the error message and position
+     * @return A string containing the error message and position, or the range of positions it spans
      */
     public String format() {
-        return "Error: %s at %s".formatted(this.message, this.position.format());
+        String place = this.positions.position(this.offset).format();
+        if (this.length > 1) {
+            place = "%s-%s".formatted(place, this.positions.position(this.offset + this.length - 1).format());
+        }
+        return "Error: %s at %s".formatted(this.message, place);
     }
 }
@@ -1,20 +1,21 @@
 package com.andreychh.lox.error;
 
-import java.util.ArrayList;
 import java.util.List;
 
+import com.andreychh.lox.collection.AppendOnlyList;
+
 /**
  * Represents an immutable collection of {@link Error} objects.
  */
 public final class Errors {
-    private final List<Error> errors;
+    private final AppendOnlyList<Error> errors;
 
     /**
      * Constructs an {@code Errors} object with the provided list of errors.
      *
      * @param errors list of error objects to initialize the collection with
      */
-    private Errors(final List<Error> errors) {
+    private Errors(final AppendOnlyList<Error> errors) {
         this.errors = errors;
     }
 
@@ -22,7 +23,7 @@ public final class Errors {
      * Constructs an empty {@code Errors} object.
      */
     public Errors() {
-        this(new ArrayList<>());
+        this(new AppendOnlyList<>());
     }
 
     /**
@@ -32,9 +33,7 @@ public final class Errors {
      * @return new errors instance with the error added
      */
     public Errors withError(final Error error) {
-        List<Error> errors = new ArrayList<>(this.errors);
-        errors.add(error);
-        return new Errors(errors);
+        return new Errors(this.errors.with(error));
     }
 
     /**
@@ -44,17 +43,15 @@ public final class Errors {
      * @return new errors instance with all errors from the other object added
      */
     public Errors withErrors(final Errors other) {
-        List<Error> errors = new ArrayList<>(this.errors);
-        errors.addAll(other.errors);
-        return new Errors(errors);
+        return new Errors(this.errors.withAll(other.errors));
     }
 
     /**
-     * Returns internal list of errors.
+     * Returns the collected errors.
      *
-     * @return list of error objects
+     * @return unmodifiable list of error objects
      */
     public List<Error> asList() {
-        return this.errors;
+        return this.errors.asList();
     }
 }
@@ -0,0 +1,405 @@
+package com.andreychh.lox.lexing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.andreychh.lox.error.Error;
+import com.andreychh.lox.lexing.state.Escapes;
+import com.andreychh.lox.lexing.state.Keywords;
+import com.andreychh.lox.source.CharClass;
+import com.andreychh.lox.source.PositionResolver;
+import com.andreychh.lox.source.TextSource;
+import com.andreychh.lox.token.StringLiteral;
+import com.andreychh.lox.token.SymbolTable;
+import com.andreychh.lox.token.TokenBuffer;
+import com.andreychh.lox.token.TokenType;
+
+/**
+ * Performs lexical analysis of a text in a single loop over one mutable cursor, producing the same result as
+ * {@link LexingFSM}.
+ * <p>
+ * {@link LexingFSM} moves through immutable states, so every step allocates a state, a source and a result. This lexer
+ * gives that up for throughput in batch jobs: the state is an int, the cursor is an int offset into the text, tokens
+ * are written in place into the columns of a {@link TokenBuffer}, and names are interned straight from the text. Apart
+ * from the first occurrence of every name and the errors, nothing is allocated per token.
+ * <p>
+ * {@snippet :
+ * LexingResult result = new FastLexer(Files.readString(path)).tokenize();
+ *}
+ */
+public final class FastLexer {
+    private static final int INITIAL = 0;
+    private static final int WHITESPACE = 1;
+    private static final int PUNCTUATION = 2;
+    private static final int OPERATOR = 3;
+    private static final int SLASH = 4;
+    private static final int STRING = 5;
+    private static final int NUMBER = 6;
+    private static final int IDENTIFIER = 7;
+    private static final int UNEXPECTED = 8;
+    private static final int EOF = 9;
+    private static final int TERMINATED = 10;
+    private static final int ASCII = 128;
+    private static final int DIGITS = 15;
+    private static final int RADIX = 10;
+    private static final int PREVIEW = 16;
+    private static final double[] POWERS = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15,
+    };
+    private static final CharClass BLANK = new CharClass(" \t\n\r");
+    private static final CharClass DIGIT = new CharClass('0', '9');
+    private static final CharClass LETTER = new CharClass('a', 'z')
+        .union(new CharClass('A', 'Z'))
+        .union(new CharClass("_"));
+    private static final CharClass NAME = LETTER.union(DIGIT);
+    private static final CharClass PLAIN = new CharClass("\"\\").negated();
+    private static final int[] STATES = FastLexer.states();
+    private static final CharClass INVALID = FastLexer.invalid();
+    private static final TokenType[] PUNCTUATIONS = FastLexer.punctuations();
+    private static final Keywords KEYWORDS = new Keywords();
+    private static final Escapes ESCAPES = new Escapes();
+
+    private final CharSequence text;
+
+    /**
+     * Creates a lexer of the given text.
+     *
+     * @param text The source code to be tokenized
+     */
+    public FastLexer(final CharSequence text) {
+        this.text = text;
+    }
+
+    /**
+     * Performs complete lexical analysis of the text.
+     *
+     * @return The lexical analysis result, identical to the one of {@link LexingFSM}
+     */
+    public LexingResult tokenize() {
+        return new Run(this.text).lexed();
+    }
+
+    /**
+     * Builds the table of the states entered on each ASCII character.
+     *
+     * @return the state codes indexed by character
+     */
+    private static int[] states() {
+        int[] states = new int[ASCII];
+        Arrays.fill(states, UNEXPECTED);
+        for (char character = 0; character < ASCII; character++) {
+            if (BLANK.contains(character)) {
+                states[character] = WHITESPACE;
+            } else if (DIGIT.contains(character)) {
+                states[character] = NUMBER;
+            } else if (LETTER.contains(character)) {
+                states[character] = IDENTIFIER;
+            }
+        }
+        "(){}.,;+-*".chars().forEach(character -> states[character] = PUNCTUATION);
+        "!=><".chars().forEach(character -> states[character] = OPERATOR);
+        states['/'] = SLASH;
+        states['"'] = STRING;
+        return states;
+    }
+
+    /**
+     * Builds the class of characters that cannot start a token.
+     *
+     * @return the class of characters beyond ASCII and of ASCII characters entering no state
+     */
+    private static CharClass invalid() {
+        StringBuilder valid = new StringBuilder();
+        for (char character = 0; character < ASCII; character++) {
+            if (STATES[character] != UNEXPECTED) {
+                valid.append(character);
+            }
+        }
+        return new CharClass(valid.toString()).negated();
+    }
+
+    /**
+     * Builds the table of the token types of single-character punctuation.
+     *
+     * @return the token types indexed by character
+     */
+    private static TokenType[] punctuations() {
+        TokenType[] types = new TokenType[ASCII];
+        types['('] = TokenType.LEFT_PAREN;
+        types[')'] = TokenType.RIGHT_PAREN;
+        types['{'] = TokenType.LEFT_BRACE;
+        types['}'] = TokenType.RIGHT_BRACE;
+        types['.'] = TokenType.DOT;
+        types[','] = TokenType.COMMA;
+        types[';'] = TokenType.SEMICOLON;
+        types['+'] = TokenType.PLUS;
+        types['-'] = TokenType.MINUS;
+        types['*'] = TokenType.STAR;
+        return types;
+    }
+
+    /**
+     * Represents one pass of the lexer over the text, writing tokens and errors as it goes.
+     */
+    private static final class Run {
+        private final CharSequence text;
+        private final PositionResolver positions;
+        private final SymbolTable symbols;
+        private final TokenBuffer.Writer tokens;
+        private final List<Error> errors;
+
+        /**
+         * Constructs a pass over the given text.
+         *
+         * @param text the text to lex
+         */
+        Run(final CharSequence text) {
+            TextSource source = new TextSource(text);
+            this.text = text;
+            this.positions = source.positions();
+            this.symbols = new SymbolTable();
+            this.tokens = new TokenBuffer.Writer(source, this.symbols);
+            this.errors = new ArrayList<>();
+        }
+
+        /**
+         * Drives the cursor from the start of the text to its end.
+         *
+         * @return the lexical analysis result
+         */
+        LexingResult lexed() {
+            int offset = 0;
+            int state = INITIAL;
+            while (state != TERMINATED) {
+                if (state == INITIAL) {
+                    state = this.dispatched(offset);
+                } else if (state == EOF) {
+                    this.tokens.write(TokenType.EOF, offset, 0, SymbolTable.NONE, Double.NaN);
+                    state = TERMINATED;
+                } else {
+                    offset = this.step(state, offset);
+                    state = INITIAL;
+                }
+            }
+            return new LexingResult(this.tokens.buffer(), this.errors);
+        }
+
+        /**
+         * Chooses the state entered on the character under the cursor.
+         *
+         * @param offset the cursor
+         * @return the state code
+         */
+        private int dispatched(final int offset) {
+            if (offset == this.text.length()) {
+                return EOF;
+            }
+            char character = this.text.charAt(offset);
+            if (character < ASCII) {
+                return STATES[character];
+            }
+            return UNEXPECTED;
+        }
+
+        /**
+         * Lexes one token, comment, whitespace run or error starting at the cursor.
+         *
+         * @param state  the state entered on the character under the cursor
+         * @param offset the cursor
+         * @return the cursor after the consumed characters
+         */
+        private int step(final int state, final int offset) {
+            return switch (state) {
+                case WHITESPACE -> this.span(offset, BLANK);
+                case PUNCTUATION -> this.written(PUNCTUATIONS[this.text.charAt(offset)], offset, 1, SymbolTable.NONE);
+                case OPERATOR -> this.operator(offset);
+                case SLASH -> this.slash(offset);
+                case STRING -> this.string(offset);
+                case NUMBER -> this.number(offset);
+                case IDENTIFIER -> this.identifier(offset);
+                default -> this.unexpected(offset);
+            };
+        }
+
+        /**
+         * Lexes a one- or two-character operator.
+         *
+         * @param offset the offset of the operator
+         * @return the offset following the operator
+         */
+        private int operator(final int offset) {
+            boolean compound = this.at(offset + 1) == '=';
+            TokenType type = switch (this.text.charAt(offset)) {
+                case '=' -> compound ? TokenType.EQUAL_EQUAL : TokenType.EQUAL;
+                case '!' -> compound ? TokenType.BANG_EQUAL : TokenType.BANG;
+                case '>' -> compound ? TokenType.GREATER_EQUAL : TokenType.GREATER;
+                default -> compound ? TokenType.LESS_EQUAL : TokenType.LESS;
+            };
+            return this.written(type, offset, compound ? 2 : 1, SymbolTable.NONE);
+        }
+
+        /**
+         * Lexes a slash or skips a line comment.
+         *
+         * @param offset the offset of the slash
+         * @return the offset following the slash, or of the line break ending the comment
+         */
+        private int slash(final int offset) {
+            if (this.at(offset + 1) == '/') {
+                return this.found(offset + 2, '\n');
+            }
+            return this.written(TokenType.SLASH, offset, 1, SymbolTable.NONE);
+        }
+
+        /**
+         * Lexes a string literal and interns its value, or reports it unterminated.
+         *
+         * @param offset the offset of the opening quote
+         * @return the offset following the closing quote, or the end of the text
+         */
+        private int string(final int offset) {
+            int plain = this.span(offset + 1, PLAIN);
+            int close = plain;
+            while (this.at(close) == '\\') {
+                int escape = ESCAPES.length(this.text, close);
+                if (escape == 0) {
+                    this.errors.add(new Error("Invalid escape sequence in string literal", close, this.positions));
+                    escape = 1;
+                }
+                close = this.span(close + escape, PLAIN);
+            }
+            if (close == this.text.length()) {
+                this.errors.add(new Error("Unterminated string literal", offset, this.positions));
+                return close;
+            }
+            int length = close + 1 - offset;
+            int symbol = close == plain
+                ? this.symbols.intern(this.text, offset + 1, length - 2)
+                : this.symbols.intern(new StringLiteral(this.text.subSequence(offset, close + 1)).value());
+            return this.written(TokenType.STRING, offset, length, symbol);
+        }
+
+        /**
+         * Lexes a numeric literal and decodes its value.
+         *
+         * @param offset the offset of the first digit
+         * @return the offset following the literal
+         */
+        private int number(final int offset) {
+            int end = this.span(offset, DIGIT);
+            int integer = end - offset;
+            if (this.at(end) == '.' && DIGIT.contains(this.at(end + 1))) {
+                end = this.span(end + 1, DIGIT);
+            }
+            int fraction = Math.max(end - offset - integer - 1, 0);
+            double value;
+            if (integer + fraction > DIGITS) {
+                value = Double.parseDouble(this.text.subSequence(offset, end).toString());
+            } else {
+                long digits = 0;
+                for (int i = offset; i < end; i++) {
+                    if (i != offset + integer) {
+                        digits = digits * RADIX + this.text.charAt(i) - '0';
+                    }
+                }
+                value = digits / POWERS[fraction];
+            }
+            this.tokens.write(TokenType.NUMBER, offset, end - offset, SymbolTable.NONE, value);
+            return end;
+        }
+
+        /**
+         * Lexes an identifier or a keyword.
+         *
+         * @param offset the offset of the first character
+         * @return the offset following the name
+         */
+        private int identifier(final int offset) {
+            int length = this.span(offset, NAME) - offset;
+            TokenType type = KEYWORDS.type(this.text, offset, length);
+            if (type == TokenType.IDENTIFIER) {
+                return this.written(type, offset, length, this.symbols.intern(this.text, offset, length));
+            }
+            return this.written(type, offset, length, SymbolTable.NONE);
+        }
+
+        /**
+         * Reports a run of characters that cannot start a token as a single error.
+         *
+         * @param offset the offset of the first character of the run
+         * @return the offset following the run
+         */
+        private int unexpected(final int offset) {
+            int end = this.span(offset, INVALID);
+            int length = end - offset;
+            String message;
+            if (length == 1) {
+                message = "Unexpected character '%s'.".formatted(this.text.charAt(offset));
+            } else if (length <= PREVIEW) {
+                message = "Unexpected characters '%s'.".formatted(this.text.subSequence(offset, end));
+            } else {
+                message = "Unexpected characters '%s...'.".formatted(this.text.subSequence(offset, offset + PREVIEW));
+            }
+            this.errors.add(new Error(message, offset, length, this.positions));
+            return end;
+        }
+
+        /**
+         * Writes a token that carries no numeric value.
+         *
+         * @param type   the type of the token
+         * @param offset the offset of the first character
+         * @param length the number of characters
+         * @param symbol the symbol id, or {@link SymbolTable#NONE}
+         * @return the offset following the token
+         */
+        private int written(final TokenType type, final int offset, final int length, final int symbol) {
+            this.tokens.write(type, offset, length, symbol, Double.NaN);
+            return offset + length;
+        }
+
+        /**
+         * Returns the character at the given offset, or a character starting no token past the end of the text.
+         *
+         * @param offset the offset
+         * @return the character, or {@code '\0'}
+         */
+        private char at(final int offset) {
+            if (offset < this.text.length()) {
+                return this.text.charAt(offset);
+            }
+            return '\0';
+        }
+
+        /**
+         * Finds the end of a run of characters of the given class.
+         *
+         * @param from    the offset to start at
+         * @param members the class of characters in the run
+         * @return the offset of the first character outside the class, or the end of the text
+         */
+        private int span(final int from, final CharClass members) {
+            int offset = from;
+            while (offset < this.text.length() && members.contains(this.text.charAt(offset))) {
+                offset++;
+            }
+            return offset;
+        }
+
+        /**
+         * Finds the next occurrence of a character.
+         *
+         * @param from   the offset to start at
+         * @param target the character to find
+         * @return the offset of the character, or the end of the text
+         */
+        private int found(final int from, final char target) {
+            int offset = Math.min(from, this.text.length());
+            while (offset < this.text.length() && this.text.charAt(offset) != target) {
+                offset++;
+            }
+            return offset;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.andreychh.lox.lexing;
+
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+import com.andreychh.lox.error.Error;
+import com.andreychh.lox.lexing.monitor.SilentMonitor;
+import com.andreychh.lox.lexing.state.InitialState;
+import com.andreychh.lox.lexing.state.LexingState;
+import com.andreychh.lox.source.TextSource;
+import com.andreychh.lox.token.Token;
+
+/**
+ * Performs lexical analysis of an edited text by re-lexing only the region around the edit, producing the same result
+ * as {@link LexingFSM} over the whole edited text.
+ * <p>
+ * The lexer is in its initial state at the end of every token and reads at most two characters past it, so the tokens
+ * ending at least two characters before the edit are kept as they are, and lexing restarts right after the last of
+ * them. The lexer only looks forward, so once it starts a token at an offset past the inserted text where the
+ * previous result also started one, every following token and error is the same as before, shifted by the change in
+ * length. From that point the previous result is spliced in instead of lexed again.
+ * <p>
+ * The result shares the symbol table of the previous one, so names outside the edit keep their symbol ids.
+ * <p>
+ * With an error limit, the previous result must have been lexed with the same limit. A result that stopped at the
+ * limit lacks the tokens and errors past the point where it stopped, so it cannot be spliced, and an edited text
+ * whose errors go beyond the limit must stop where {@link LexingFSM} would. In both cases the edited text is lexed
+ * from scratch with the limit, and the result gets a symbol table of its own.
+ * <p>
+ * {@snippet :
+ * LexingResult before = new LexingFSM(new TextSource(text)).tokenize();
+ * TextEdit edit = new TextEdit(4, 1, "answer");
+ * LexingResult after = new IncrementalLexingFSM(before, text, edit).tokenize();
+ *}
+ *
+ * @implNote Kept and spliced tokens are copied into the buffer of the new result in bulk, with their offsets shifted,
+ * which costs a few array copies instead of a pass of the state machine over their characters.
+ */
+public final class IncrementalLexingFSM {
+    private static final int LOOKAHEAD = 2;
+
+    private final LexingResult previous;
+    private final CharSequence text;
+    private final TextEdit edit;
+    private final int limit;
+
+    /**
+     * Creates an incremental lexer for one edit of a text, for results that stop after the given number of errors.
+     *
+     * @param previous The result of lexing the text before the edit with the same limit
+     * @param text     The text before the edit
+     * @param edit     The edit applied to the text
+     * @param limit    The number of errors beyond which lexing stops, at least {@code 1}
+     */
+    public IncrementalLexingFSM(
+        final LexingResult previous,
+        final CharSequence text,
+        final TextEdit edit,
+        final int limit
+    ) {
+        this.previous = previous;
+        this.text = text;
+        this.edit = edit;
+        this.limit = limit;
+    }
+
+    /**
+     * Creates an incremental lexer for one edit of a text.
+     *
+     * @param previous The result of lexing the text before the edit without an error limit
+     * @param text     The text before the edit
+     * @param edit     The edit applied to the text
+     */
+    public IncrementalLexingFSM(final LexingResult previous, final CharSequence text, final TextEdit edit) {
+        this(previous, text, edit, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Performs lexical analysis of the edited text.
+     *
+     * @return The lexical analysis result of the edited text, identical to the one of {@link LexingFSM} with the limit
+     */
+    public LexingResult tokenize() {
+        TextSource source = new TextSource(this.edit.applied(this.text));
+        if (this.previous.errorCount() > this.limit) {
+            return new LexingFSM(source, new SilentMonitor(), this.limit).tokenize();
+        }
+        LexingResult result = this.unlimited(source);
+        if (result.errorCount() > this.limit) {
+            return new LexingFSM(source, new SilentMonitor(), this.limit).tokenize();
+        }
+        return result;
+    }
+
+    /**
+     * Lexes the region around the edit and splices in the tokens and errors of the previous result around it.
+     *
+     * @param source The edited text
+     * @return The result of lexing the edited text without an error limit
+     */
+    private LexingResult unlimited(final TextSource source) {
+        List<Token> old = this.previous.tokens();
+        int kept = IncrementalLexingFSM.search(
+            old,
+            old.size() - 1,
+            IncrementalLexingFSM::end,
+            this.edit.offset() - LOOKAHEAD + 1
+        );
+        int restart = kept == 0 ? 0 : IncrementalLexingFSM.end(old.get(kept - 1));
+        LexingResult result = this.previous.cleared()
+            .withMoved(this.previous, 0, kept, source.skip(old.getFirst().offset()));
+        for (Error error : this.previous.errors()) {
+            if (error.offset() < restart) {
+                result = result.withError(error.moved(0, source.positions()));
+            }
+        }
+        return this.relexed(new InitialState(source.skip(restart), result), old, source);
+    }
+
+    /**
+     * Drives the state machine over the edited region until it starts a token the previous result also started.
+     *
+     * @param start  The initial state at the restart point
+     * @param old    The tokens of the previous result
+     * @param source The edited text
+     * @return The result of lexing the rest of the edited text
+     */
+    private LexingResult relexed(final LexingState start, final List<Token> old, final TextSource source) {
+        LexingState state = start;
+        int count = start.collectResult().tokens().size();
+        while (!state.isFinal()) {
+            state = state.next();
+            List<Token> tokens = state.collectResult().tokens();
+            if (tokens.size() > count) {
+                count = tokens.size();
+                int matched = this.matched(old, tokens.get(count - 1));
+                if (matched >= 0) {
+                    return this.spliced(state.collectResult(), old, matched, source);
+                }
+            }
+        }
+        return state.collectResult();
+    }
+
+    /**
+     * Finds the token of the previous result that the given new token resynchronizes with.
+     *
+     * @param old   The tokens of the previous result
+     * @param token The token just lexed from the edited text
+     * @return The index of the previous token starting at the same place of the unchanged text, or {@code -1}
+     */
+    private int matched(final List<Token> old, final Token token) {
+        if (token.offset() < this.edit.end()) {
+            return -1;
+        }
+        int target = token.offset() - this.edit.delta();
+        int index = IncrementalLexingFSM.search(old, old.size(), Token::offset, target);
+        if (index < old.size() && old.get(index).offset() == target) {
+            return index;
+        }
+        return -1;
+    }
+
+    /**
+     * Appends the tokens and errors of the previous result that follow the resynchronization point.
+     * <p>
+     * Errors inside the matched token, such as invalid escapes of a string literal, were reported again when it was
+     * lexed, so only the errors following it are carried over.
+     *
+     * @param relexed The result of lexing up to and including the matched token
+     * @param old     The tokens of the previous result
+     * @param matched The index of the matched token in the previous result
+     * @param source  The edited text
+     * @return The complete result of the edited text
+     */
+    private LexingResult spliced(
+        final LexingResult relexed,
+        final List<Token> old,
+        final int matched,
+        final TextSource source
+    ) {
+        int delta = this.edit.delta();
+        LexingResult result = relexed;
+        if (matched + 1 < old.size()) {
+            result = result.withMoved(
+                this.previous,
+                matched + 1,
+                old.size(),
+                source.skip(old.get(matched + 1).offset() + delta)
+            );
+        }
+        int resync = IncrementalLexingFSM.end(old.get(matched));
+        for (Error error : this.previous.errors()) {
+            if (error.offset() >= resync) {
+                result = result.withError(error.moved(delta, source.positions()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the offset following the last character of a token.
+     *
+     * @param token The token
+     * @return The end offset of the token
+     */
+    private static int end(final Token token) {
+        return token.offset() + token.text().length();
+    }
+
+    /**
+     * Finds the first of the leading tokens whose key reaches the target, given keys ascending with the index.
+     *
+     * @param tokens The tokens to search
+     * @param size   The number of leading tokens to search
+     * @param key    The key of a token
+     * @param target The key to reach
+     * @return The index of the first token whose key is at least the target, or {@code size} if there is none
+     */
+    private static int search(
+        final List<Token> tokens,
+        final int size,
+        final ToIntFunction<Token> key,
+        final int target
+    ) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (key.applyAsInt(tokens.get(middle)) < target) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -1,8 +1,13 @@
 package com.andreychh.lox.lexing;
 
+import com.andreychh.lox.error.Error;
+import com.andreychh.lox.lexing.monitor.LexingMonitor;
+import com.andreychh.lox.lexing.monitor.SilentMonitor;
 import com.andreychh.lox.lexing.state.InitialState;
 import com.andreychh.lox.lexing.state.LexingState;
+import com.andreychh.lox.lexing.state.TerminatedState;
 import com.andreychh.lox.source.Source;
+import com.andreychh.lox.token.TokenType;
 
 /**
  * Represents the finite state machine (FSM) that performs lexical analysis of source code.
@@ -12,9 +17,57 @@ import com.andreychh.lox.source.Source;
  * <p>
  * The FSM handles all types of lexical elements including identifiers, keywords, operators, literals, comments, and
  * whitespace. When invalid characters are encountered, appropriate errors are generated and the analysis continues.
+ * <p>
+ * A {@link LexingMonitor} observes every transition and the finished run. Unless one is given, the FSM reports to a
+ * {@link SilentMonitor}, which costs nothing.
+ * <p>
+ * The number of errors may be limited, so that input that is not Lox at all fails fast and in bounded memory. When a
+ * transition would add an error beyond the limit, the FSM drops that transition and stops without lexing the rest of
+ * the source. It adds one more error saying so and an EOF token, both at the place of the first error left out, so a
+ * stopped result ends like a complete one. Input with exactly as many errors as the limit is lexed to its end.
  */
 public final class LexingFSM {
     private final Source source;
+    private final LexingMonitor monitor;
+    private final int limit;
+    private final int before;
+
+    /**
+     * Creates a new lexical analysis FSM for a part of a text, counting the errors of the preceding parts towards the
+     * limit.
+     *
+     * @param source  The source code to be tokenized
+     * @param monitor The monitor of the run
+     * @param limit   The number of errors after which lexing stops, at least {@code 1}
+     * @param before  The number of errors found before the source, less than the limit
+     */
+    LexingFSM(final Source source, final LexingMonitor monitor, final int limit, final int before) {
+        this.source = source;
+        this.monitor = monitor;
+        this.limit = limit;
+        this.before = before;
+    }
+
+    /**
+     * Creates a new lexical analysis FSM for the given source code that stops after the given number of errors.
+     *
+     * @param source  The source code to be tokenized
+     * @param monitor The monitor of the run
+     * @param limit   The number of errors after which lexing stops, at least {@code 1}
+     */
+    public LexingFSM(final Source source, final LexingMonitor monitor, final int limit) {
+        this(source, monitor, limit, 0);
+    }
+
+    /**
+     * Creates a new lexical analysis FSM for the given source code, observed by the given monitor.
+     *
+     * @param source  The source code to be tokenized
+     * @param monitor The monitor of the run
+     */
+    public LexingFSM(final Source source, final LexingMonitor monitor) {
+        this(source, monitor, Integer.MAX_VALUE);
+    }
 
     /**
      * Creates a new lexical analysis FSM for the given source code.
@@ -22,22 +75,45 @@ public final class LexingFSM {
      * @param source The source code to be tokenized
      */
     public LexingFSM(final Source source) {
-        this.source = source;
+        this(source, new SilentMonitor());
     }
 
     /**
      * Executes the finite state machine to perform complete lexical analysis.
      * <p>
      * Starting from the initial state, this method drives the FSM through successive state transitions until a final
-     * state is reached. Each state processes characters from the source and may produce tokens or errors.
+     * state is reached or the error limit is. Each state processes characters from the source and may produce tokens or
+     * errors.
      *
      * @return The complete lexical analysis result containing all discovered tokens and any errors
      */
     public LexingResult tokenize() {
-        LexingState state = new InitialState(this.source, new LexingResult());
+        long start = System.nanoTime();
+        LexingState state = new InitialState(this.monitor.watched(this.source), new LexingResult());
         while (!state.isFinal()) {
-            state = state.next();
+            this.monitor.transition(state);
+            LexingState next = state.next();
+            if (this.before + next.collectResult().errorCount() > this.limit) {
+                next = new TerminatedState(this.stopped(state.collectResult(), next.collectResult()));
+            }
+            state = next;
         }
-        return state.collectResult();
+        LexingResult result = state.collectResult();
+        this.monitor.finished(result, this.source.offset(), System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * Ends the result at the first error beyond the limit with an error telling that lexing stopped and an EOF token.
+     *
+     * @param kept     The result lexed before the transition that exceeded the limit
+     * @param exceeded The result of that transition, holding more errors than the limit allows
+     * @return The kept result with the error and the EOF token added
+     */
+    private LexingResult stopped(final LexingResult kept, final LexingResult exceeded) {
+        int offset = exceeded.errors().get(kept.errorCount()).offset();
+        String message = "Too many errors (%d), lexing stopped.".formatted(this.limit);
+        return kept.withError(new Error(message, offset, this.source.positions()))
+            .withToken(TokenType.EOF, this.source.skip(offset - this.source.offset()), 0);
     }
 }
@@ -1,10 +1,16 @@
 package com.andreychh.lox.lexing;
 
-import java.util.ArrayList;
 import java.util.List;
 
+import com.andreychh.lox.collection.AppendOnlyList;
 import com.andreychh.lox.error.Error;
+import com.andreychh.lox.source.Source;
+import com.andreychh.lox.token.ExplicitToken;
+import com.andreychh.lox.token.StringLiteral;
+import com.andreychh.lox.token.SymbolTable;
 import com.andreychh.lox.token.Token;
+import com.andreychh.lox.token.TokenBuffer;
+import com.andreychh.lox.token.TokenType;
 
 /**
  * Represents the accumulated result of lexical analysis, containing all tokens and errors discovered.
@@ -12,14 +18,39 @@ import com.andreychh.lox.token.Token;
  * This immutable data structure serves as the container for the output of the lexical analysis process. It maintains
  * two collections: successfully parsed tokens and any errors encountered during parsing. The class supports
  * functional-style updates through {@link #withToken(Token)} and {@link #withError(Error)} methods, which return new
- * instances rather than modifying the existing one.
+ * instances rather than modifying the existing one. Both collections are append-only, so each update costs amortized
+ * constant time instead of a copy of everything collected so far.
+ * <p>
+ * Tokens added through {@link #withToken(TokenType, Source, int)} from a durable source are kept in a
+ * {@link TokenBuffer}, a few bytes per token, and only materialized as lightweight views when {@link #tokens()} is
+ * read. Tokens from a source that discards its text, or added as ready-made {@link Token} objects, are kept as such.
  * <p>
  * The lexing process can continue even after encountering errors, allowing the collection of multiple issues in a
  * single pass. This enables better error reporting and recovery strategies in later compilation phases.
  */
 public final class LexingResult {
-    private final List<Token> tokens;
-    private final List<Error> errors;
+    private final AppendOnlyList<Token> tokens;
+    private final TokenBuffer buffer;
+    private final AppendOnlyList<Error> errors;
+
+    /**
+     * Creates a new lexing result backed by the specified collections.
+     * <p>
+     * At most one of the token collections is non-empty.
+     *
+     * @param tokens The successfully parsed tokens, kept as objects
+     * @param buffer The successfully parsed tokens, kept as spans of the source text
+     * @param errors The errors encountered during lexical analysis
+     */
+    private LexingResult(
+        final AppendOnlyList<Token> tokens,
+        final TokenBuffer buffer,
+        final AppendOnlyList<Error> errors
+    ) {
+        this.tokens = tokens;
+        this.buffer = buffer;
+        this.errors = errors;
+    }
 
     /**
      * Creates a new lexing result with the specified tokens and errors.
@@ -30,8 +61,17 @@ public final class LexingResult {
      * @param errors The list of errors encountered during lexical analysis
      */
     public LexingResult(final List<Token> tokens, final List<Error> errors) {
-        this.tokens = new ArrayList<>(tokens);
-        this.errors = new ArrayList<>(errors);
+        this(new AppendOnlyList<>(tokens), new TokenBuffer(), new AppendOnlyList<>(errors));
+    }
+
+    /**
+     * Creates a new lexing result holding the given buffered tokens and errors.
+     *
+     * @param buffer The tokens, kept as spans of the source text
+     * @param errors The errors encountered during lexical analysis
+     */
+    LexingResult(final TokenBuffer buffer, final List<Error> errors) {
+        this(new AppendOnlyList<>(), buffer, new AppendOnlyList<>(errors));
     }
 
     /**
@@ -41,7 +81,7 @@ public final class LexingResult {
      * slate is needed.
      */
     public LexingResult() {
-        this(new ArrayList<>(), new ArrayList<>());
+        this(new AppendOnlyList<>(), new TokenBuffer(), new AppendOnlyList<>());
     }
 
     /**
@@ -55,9 +95,83 @@ public final class LexingResult {
      * @return A new {@code LexingResult} instance containing the additional token
      */
     public LexingResult withToken(final Token token) {
-        List<Token> newTokens = new ArrayList<>(this.tokens);
-        newTokens.add(token);
-        return new LexingResult(newTokens, this.errors);
+        return new LexingResult(this.explicit().with(token), this.emptied(), this.errors);
+    }
+
+    /**
+     * Creates a new lexing result by adding a token spanning the given characters of the source.
+     * <p>
+     * If the source is durable, only the type, start offset and length of the token are stored. Otherwise the lexeme
+     * and position are read at once, while the source still holds them.
+     *
+     * @param type   The type of the token
+     * @param start  The source positioned at the first character of the token
+     * @param length The number of characters in the lexeme
+     * @return A new {@code LexingResult} instance containing the additional token
+     */
+    public LexingResult withToken(final TokenType type, final Source start, final int length) {
+        if (!start.durable() || this.tokens.size() > 0) {
+            return this.withExplicit(type, start.take(length).value(), start, SymbolTable.NONE, Double.NaN);
+        }
+        return new LexingResult(this.tokens, this.buffer.with(type, start, length), this.errors);
+    }
+
+    /**
+     * Creates a new lexing result by adding a token whose lexeme is interned in the symbol table of the run.
+     * <p>
+     * The lexeme is hashed and compared straight from the source, so a name seen before costs no allocation, and the
+     * token carries the dense id of the name.
+     *
+     * @param type   The type of the token
+     * @param start  The source positioned at the first character of the token
+     * @param length The number of characters in the lexeme
+     * @return A new {@code LexingResult} instance containing the additional token
+     */
+    public LexingResult withSymbol(final TokenType type, final Source start, final int length) {
+        SymbolTable symbols = this.buffer.symbols();
+        int symbol = symbols.intern(start, length);
+        if (!start.durable() || this.tokens.size() > 0) {
+            return this.withExplicit(type, symbols.name(symbol), start, symbol, Double.NaN);
+        }
+        return new LexingResult(this.tokens, this.buffer.with(type, start, length, symbol), this.errors);
+    }
+
+    /**
+     * Creates a new lexing result by adding a string literal whose value is interned in the symbol table of the run.
+     * <p>
+     * The lexeme of the token is the literal as written, quotes and escape sequences included, while its symbol names
+     * the value. A literal without escapes is interned straight from the characters between its quotes, so a value
+     * seen before costs no allocation; only a literal with escapes is decoded, by {@link StringLiteral}.
+     *
+     * @param start   The source positioned at the opening quote
+     * @param length  The number of characters in the lexeme, quotes included
+     * @param escaped Whether the literal holds a backslash
+     * @return A new {@code LexingResult} instance containing the additional token
+     */
+    public LexingResult withString(final Source start, final int length, final boolean escaped) {
+        SymbolTable symbols = this.buffer.symbols();
+        int symbol = escaped
+            ? symbols.intern(new StringLiteral(start.take(length).value()).value())
+            : symbols.intern(start, 1, length - 2);
+        if (!start.durable() || this.tokens.size() > 0) {
+            return this.withExplicit(TokenType.STRING, start.take(length).value(), start, symbol, Double.NaN);
+        }
+        return new LexingResult(this.tokens, this.buffer.with(TokenType.STRING, start, length, symbol), this.errors);
+    }
+
+    /**
+     * Creates a new lexing result by adding a numeric literal whose value is already decoded.
+     *
+     * @param start  The source positioned at the first character of the literal
+     * @param length The number of characters in the lexeme
+     * @param value  The value of the literal
+     * @return A new {@code LexingResult} instance containing the additional token
+     */
+    public LexingResult withNumber(final Source start, final int length, final double value) {
+        if (!start.durable() || this.tokens.size() > 0) {
+            return this.withExplicit(TokenType.NUMBER, start.take(length).value(), start, SymbolTable.NONE, value);
+        }
+        return new LexingResult(this.tokens, this.buffer.withNumber(start, length, value), this.errors);
     }
 
     /**
@@ -74,9 +188,105 @@ public final class LexingResult {
      * @return A new {@code LexingResult} instance containing the additional error
      */
     public LexingResult withError(final Error error) {
-        List<Error> newErrors = new ArrayList<>(this.errors);
-        newErrors.add(error);
-        return new LexingResult(this.tokens, newErrors);
+        return new LexingResult(this.tokens, this.buffer, this.errors.with(error));
+    }
+
+    /**
+     * Creates a new lexing result with the errors of the current result and no tokens.
+     * <p>
+     * The errors are shared rather than copied, so a consumer that drains tokens as they are discovered pays nothing
+     * for carrying the errors forward.
+     *
+     * @return A new {@code LexingResult} instance containing the same errors and no tokens
+     */
+    public LexingResult withoutTokens() {
+        return new LexingResult(new AppendOnlyList<>(), this.emptied(), this.errors);
+    }
+
+    /**
+     * Creates a new lexing result by adding a token lexed earlier, placed at the given source.
+     * <p>
+     * The token keeps its type, lexeme length, symbol and numeric value, but refers to the given source, which holds
+     * the same characters at another offset or in an edited text.
+     *
+     * @param token The token to carry over
+     * @param start The source positioned where the token now starts
+     * @return A new {@code LexingResult} instance containing the carried token
+     */
+    LexingResult withMoved(final Token token, final Source start) {
+        int length = token.text().length();
+        if (token.type() == TokenType.NUMBER) {
+            return this.withNumber(start, length, token.number());
+        }
+        if (token.type() == TokenType.STRING && token.symbol() != SymbolTable.NONE) {
+            return this.withString(start, length, token.lexeme().indexOf('\\') >= 0);
+        }
+        if (token.symbol() != SymbolTable.NONE) {
+            return this.withSymbol(token.type(), start, length);
+        }
+        return this.withToken(token.type(), start, length);
+    }
+
+    /**
+     * Creates a new lexing result by adding a range of tokens of another result, moved to the given source.
+     * <p>
+     * Buffered tokens are copied in bulk; tokens kept as objects are carried over one by one.
+     *
+     * @param other The result holding the tokens to carry over
+     * @param from  The index of the first token to carry over
+     * @param to    The index following the last token to carry over
+     * @param start The source positioned where the first of the tokens now starts
+     * @return A new {@code LexingResult} instance containing the carried tokens
+     */
+    LexingResult withMoved(final LexingResult other, final int from, final int to, final Source start) {
+        if (start.durable() && this.tokens.size() == 0 && other.tokens.size() == 0) {
+            return new LexingResult(this.tokens, this.buffer.withMoved(other.buffer, from, to, start), this.errors);
+        }
+        List<Token> moved = other.tokens().subList(from, to);
+        LexingResult result = this;
+        for (Token token : moved) {
+            result = result.withMoved(token, start.skip(token.offset() - moved.getFirst().offset()));
+        }
+        return result;
+    }
+
+    /**
+     * Creates an empty lexing result sharing the symbol table of this one.
+     * <p>
+     * Lexing an edited text into it keeps the symbol ids of unchanged names stable across edits.
+     *
+     * @return A new {@code LexingResult} instance with no tokens and no errors
+     */
+    LexingResult cleared() {
+        return new LexingResult(new AppendOnlyList<>(), this.emptied(), new AppendOnlyList<>());
+    }
+
+    /**
+     * Creates a new lexing result by appending the leading tokens and all errors of another result.
+     * <p>
+     * Results of lexing consecutive regions of one text are joined without copying their tokens into objects.
+     *
+     * @param other The result of lexing the text right after the text of this result
+     * @param count The number of leading tokens of the other result to append
+     * @return A new {@code LexingResult} instance covering both texts
+     */
+    LexingResult withLeading(final LexingResult other, final int count) {
+        AppendOnlyList<Error> joined = this.errors.withAll(other.errors);
+        if (this.tokens.size() == 0 && other.tokens.size() == 0) {
+            return new LexingResult(this.tokens, this.buffer.withAll(other.buffer.prefix(count)), joined);
+        }
+        SymbolTable symbols = this.buffer.symbols();
+        return new LexingResult(
+            this.explicit().withAll(
+                new AppendOnlyList<>(
+                    other.tokens().subList(0, count).stream()
+                        .map(token -> LexingResult.adopted(token, symbols))
+                        .toList()
+                )
+            ),
+            this.emptied(),
+            joined
+        );
     }
 
     /**
@@ -88,7 +298,66 @@ public final class LexingResult {
      * @return An unmodifiable view of the tokens collected during analysis
      */
     public List<Token> tokens() {
-        return List.copyOf(this.tokens);
+        if (this.buffer.size() > 0) {
+            return this.buffer.asList();
+        }
+        return this.tokens.asList();
+    }
+
+    /**
+     * Creates a new lexing result by adding a token whose lexeme has already been read from the source.
+     *
+     * @param type   The type of the token
+     * @param lexeme The lexeme of the token
+     * @param start  The source positioned at the first character of the token
+     * @param symbol The symbol id of the token, or {@link SymbolTable#NONE}
+     * @param number The value of a numeric literal, ignored for tokens of other types
+     * @return A new {@code LexingResult} instance containing the additional token
+     */
+    private LexingResult withExplicit(
+        final TokenType type,
+        final String lexeme,
+        final Source start,
+        final int symbol,
+        final double number
+    ) {
+        return this.withToken(new ExplicitToken(type, lexeme, start.offset(), start.positions(), symbol, number));
+    }
+
+    /**
+     * Returns an empty buffer sharing the symbol table of this result.
+     *
+     * @return A buffer with no tokens
+     */
+    private TokenBuffer emptied() {
+        return new TokenBuffer(this.buffer.symbols());
+    }
+
+    /**
+     * Returns a token equal to the given one whose symbol, if any, is interned in the given table.
+     *
+     * @param token   The token lexed with another symbol table
+     * @param symbols The symbol table to carry the token over to
+     * @return The token with its symbol id taken from the given table
+     */
+    private static Token adopted(final Token token, final SymbolTable symbols) {
+        if (token.symbol() == SymbolTable.NONE) {
+            return token;
+        }
+        String name = token.type() == TokenType.STRING ? token.string() : token.lexeme();
+        return new ExplicitToken(token.type(), token.lexeme(), token.position(), symbols.intern(name));
+    }
+
+    /**
+     * Returns the tokens as objects, converting the buffered tokens to views if there are any.
+     *
+     * @return The tokens collected so far
+     */
+    private AppendOnlyList<Token> explicit() {
+        if (this.buffer.size() > 0) {
+            return new AppendOnlyList<>(this.buffer.asList());
+        }
+        return this.tokens;
     }
 
     /**
@@ -101,6 +370,24 @@ public final class LexingResult {
      * @return An unmodifiable view of the errors encountered during analysis
      */
     public List<Error> errors() {
-        return List.copyOf(this.errors);
+        return this.errors.asList();
+    }
+
+    /**
+     * Returns the symbol table the symbols of the tokens are interned in.
+     *
+     * @return The symbol table of this result
+     */
+    SymbolTable symbols() {
+        return this.buffer.symbols();
+    }
+
+    /**
+     * Returns the number of errors, without taking a snapshot of them.
+     *
+     * @return The number of errors encountered so far
+     */
+    int errorCount() {
+        return this.errors.size();
     }
 }
@@ -0,0 +1,210 @@
+package com.andreychh.lox.lexing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import com.andreychh.lox.error.Error;
+import com.andreychh.lox.lexing.state.InitialState;
+import com.andreychh.lox.lexing.state.LexingState;
+import com.andreychh.lox.source.Source;
+import com.andreychh.lox.token.Token;
+import com.andreychh.lox.token.TokenType;
+import com.andreychh.lox.token.stream.ConsumptionResult;
+import com.andreychh.lox.token.stream.TokenStream;
+
+/**
+ * An implementation of {@link TokenStream} that drives the lexing FSM on demand.
+ * <p>
+ * Tokens are lexed only when a lookahead reaches them, and each one is lexed once: streams sharing a position share the
+ * lexed tokens, so backtracking costs nothing. Tokens behind the earliest stream still referenced become garbage, so
+ * only the parser's lookahead window is kept in memory instead of the whole token list.
+ * <p>
+ * Example usage:
+ * {@snippet :
+ * TokenStream tokens = new LexingTokenStream(new TextSource(code));
+ * ParsingReport report = new Parser(tokens).parse();
+ *}
+ */
+public final class LexingTokenStream implements TokenStream {
+    private final Cell cell;
+
+    /**
+     * Constructs a new {@code LexingTokenStream} at the given cell.
+     *
+     * @param cell the cell holding the next token
+     */
+    private LexingTokenStream(final Cell cell) {
+        this.cell = cell;
+    }
+
+    /**
+     * Constructs a new {@code LexingTokenStream} over the given source.
+     *
+     * @param source the source code to be tokenized
+     */
+    public LexingTokenStream(final Source source) {
+        this(new Cell(new InitialState(source, new LexingResult())));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean canLookahead(final int offset) {
+        Cell current = this.cell;
+        for (int i = 0; i < offset; i++) {
+            Optional<Link> link = current.link();
+            if (link.isEmpty()) {
+                return false;
+            }
+            current = link.get().next();
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Token lookahead(final int offset) {
+        return this.advance(offset).cell.link()
+            .orElseThrow(() -> new IndexOutOfBoundsException("No token at lookahead %d".formatted(offset)))
+            .token();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ConsumptionResult consume(final int count) {
+        List<Token> consumed = new ArrayList<>(count);
+        LexingTokenStream remaining = this;
+        for (int i = 0; i < count; i++) {
+            consumed.add(remaining.lookahead(0));
+            remaining = remaining.advance(1);
+        }
+        return new ConsumptionResult(List.copyOf(consumed), remaining);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LexingTokenStream advance(final int count) {
+        Cell current = this.cell;
+        for (int i = 0; i < count; i++) {
+            current = current.link()
+                .orElseThrow(() -> new IndexOutOfBoundsException("Cannot advance by %d tokens".formatted(count)))
+                .next();
+        }
+        return new LexingTokenStream(current);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean lookaheadMatches(final TokenType[][] expected) {
+        return this.canLookahead(expected.length) && this.allLookaheadsMatch(expected);
+    }
+
+    /**
+     * Returns the lexing errors discovered before the next token of this stream.
+     *
+     * @return the errors in the order they were discovered
+     */
+    public List<Error> errors() {
+        return this.cell.state().collectResult().errors();
+    }
+
+    /**
+     * Checks if all lookahead tokens match the expected types.
+     *
+     * @param expected an array of arrays of expected token types for each lookahead position
+     * @return {@code true} if all lookahead tokens match, otherwise {@code false}
+     */
+    private boolean allLookaheadsMatch(final TokenType[][] expected) {
+        return IntStream.range(0, expected.length).allMatch(i -> this.lookahead(i).hasAnyType(expected[i]));
+    }
+
+    /**
+     * Represents a position in the token sequence, lexing the token at it on first access.
+     */
+    private static final class Cell {
+        private final LexingState state;
+        private final AtomicReference<Optional<Link>> link;
+
+        /**
+         * Constructs a cell whose token is already known.
+         *
+         * @param state the state to lex from, holding no tokens
+         * @param link  the token at this position and the following cell
+         */
+        Cell(final LexingState state, final Optional<Link> link) {
+            this.state = state;
+            this.link = new AtomicReference<>(link);
+        }
+
+        /**
+         * Constructs a cell whose token is lexed on demand.
+         *
+         * @param state the state to lex from, holding no tokens
+         */
+        Cell(final LexingState state) {
+            this(state, Optional.empty());
+        }
+
+        /**
+         * Returns the state this cell lexes from.
+         *
+         * @return the state, whose result carries the errors discovered so far
+         */
+        LexingState state() {
+            return this.state;
+        }
+
+        /**
+         * Returns the token at this position, lexing it on first access.
+         *
+         * @return the token and the following cell, or nothing at the end of the stream
+         */
+        Optional<Link> link() {
+            if (this.link.get().isEmpty() && !this.state.isFinal()) {
+                this.link.set(this.lex());
+            }
+            return this.link.get();
+        }
+
+        /**
+         * Drives the FSM until it produces tokens, chaining a cell for each of them.
+         *
+         * @return the first produced token and its following cell, or nothing if the source is exhausted
+         */
+        private Optional<Link> lex() {
+            LexingState current = this.state;
+            while (!current.isFinal() && current.collectResult().tokens().isEmpty()) {
+                current = current.next();
+            }
+            LexingResult result = current.collectResult();
+            LexingState resumed = current.withResult(result.withoutTokens());
+            List<Token> tokens = result.tokens();
+            Optional<Link> link = Optional.empty();
+            for (int i = tokens.size() - 1; i >= 0; i--) {
+                link = Optional.of(new Link(tokens.get(i), new Cell(resumed, link)));
+            }
+            return link;
+        }
+    }
+
+    /**
+     * Represents a lexed token and the position following it.
+     *
+     * @param token the token
+     * @param next  the cell after the token
+     */
+    private record Link(Token token, Cell next) {
+    }
+}
@@ -0,0 +1,283 @@
+package com.andreychh.lox.lexing;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import com.andreychh.lox.lexing.monitor.LexingMonitor;
+import com.andreychh.lox.lexing.monitor.SilentMonitor;
+import com.andreychh.lox.source.TextSource;
+
+/**
+ * Performs lexical analysis of a large text on several cores, producing the same result as {@link LexingFSM}.
+ * <p>
+ * The text is cut into chunks that end right after a line break. Only string literals can span a line break, since
+ * comments end at one, so the lexer is in one of two modes at a chunk boundary: inside a string or not. A cheap scan
+ * of every chunk, run in parallel from both modes, tells which mode each chunk leaves the lexer in. Chaining these
+ * answers finds the boundaries that the lexer crosses outside a string. The text is split into segments at those
+ * boundaries only, and each segment is lexed on its own by a {@link LexingFSM} in the pool. Chunks starting inside a
+ * string literal are thus lexed together with the chunk where the literal opens.
+ * <p>
+ * The segment results are concatenated in order, dropping the EOF token of every segment but the last. A monitor, if
+ * given, observes every segment as a run of its own.
+ * <p>
+ * With an error limit, every segment is lexed with the whole limit, so each holds a bounded number of errors. The
+ * segment in which the errors of the text reach the limit is lexed once more, counting the errors of the segments
+ * before it, and ends the result, which thus stops exactly where {@link LexingFSM} would.
+ * <p>
+ * {@snippet :
+ * LexingResult result = new ParallelLexingFSM(Files.readString(path)).tokenize();
+ *}
+ */
+public final class ParallelLexingFSM {
+    private static final int CHUNK = 1_048_576;
+
+    private final CharSequence text;
+    private final int chunk;
+    private final ForkJoinPool pool;
+    private final LexingMonitor monitor;
+    private final int limit;
+
+    /**
+     * Creates a parallel lexer splitting the text into chunks of the given size that stops after the given number of
+     * errors.
+     *
+     * @param text    The source code to be tokenized
+     * @param chunk   The minimum number of characters per chunk
+     * @param pool    The pool that scans and lexes the chunks
+     * @param monitor The monitor of the segment runs, called from the threads of the pool
+     * @param limit   The number of errors after which lexing stops, at least {@code 1}
+     */
+    public ParallelLexingFSM(
+        final CharSequence text,
+        final int chunk,
+        final ForkJoinPool pool,
+        final LexingMonitor monitor,
+        final int limit
+    ) {
+        this.text = text;
+        this.chunk = chunk;
+        this.pool = pool;
+        this.monitor = monitor;
+        this.limit = limit;
+    }
+
+    /**
+     * Creates a parallel lexer splitting the text into chunks of the given size.
+     *
+     * @param text    The source code to be tokenized
+     * @param chunk   The minimum number of characters per chunk
+     * @param pool    The pool that scans and lexes the chunks
+     * @param monitor The monitor of the segment runs, called from the threads of the pool
+     */
+    public ParallelLexingFSM(
+        final CharSequence text,
+        final int chunk,
+        final ForkJoinPool pool,
+        final LexingMonitor monitor
+    ) {
+        this(text, chunk, pool, monitor, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates a parallel lexer splitting the text into chunks of the given size.
+     *
+     * @param text  The source code to be tokenized
+     * @param chunk The minimum number of characters per chunk
+     * @param pool  The pool that scans and lexes the chunks
+     */
+    public ParallelLexingFSM(final CharSequence text, final int chunk, final ForkJoinPool pool) {
+        this(text, chunk, pool, new SilentMonitor());
+    }
+
+    /**
+     * Creates a parallel lexer on the common pool, observed by the given monitor, that stops after the given number of
+     * errors.
+     *
+     * @param text    The source code to be tokenized
+     * @param monitor The monitor of the segment runs, called from the threads of the pool
+     * @param limit   The number of errors after which lexing stops, at least {@code 1}
+     */
+    public ParallelLexingFSM(final CharSequence text, final LexingMonitor monitor, final int limit) {
+        this(text, CHUNK, ForkJoinPool.commonPool(), monitor, limit);
+    }
+
+    /**
+     * Creates a parallel lexer splitting the text into chunks of about a million characters on the common pool.
+     *
+     * @param text The source code to be tokenized
+     */
+    public ParallelLexingFSM(final CharSequence text) {
+        this(text, CHUNK, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Performs complete lexical analysis of the text.
+     *
+     * @return The lexical analysis result, identical to the one of {@link LexingFSM}
+     */
+    public LexingResult tokenize() {
+        int[] bounds = this.bounds();
+        int[] splits = this.splits(bounds);
+        TextSource source = new TextSource(this.text);
+        List<LexingResult> results = this.pool.submit(
+            () -> IntStream.range(0, splits.length - 1)
+                .parallel()
+                .mapToObj(i -> this.segment(source, splits, i, 0))
+                .toList()
+        ).join();
+        LexingResult joined = new LexingResult();
+        for (int i = 0; i < results.size(); i++) {
+            LexingResult segment = results.get(i);
+            if (joined.errorCount() + segment.errorCount() > this.limit) {
+                LexingResult stopped = this.segment(source, splits, i, joined.errorCount());
+                return joined.withLeading(stopped, stopped.tokens().size());
+            }
+            int size = segment.tokens().size();
+            joined = joined.withLeading(segment, i == results.size() - 1 ? size : size - 1);
+        }
+        return joined;
+    }
+
+    /**
+     * Lexes one segment of the text.
+     *
+     * @param source The text
+     * @param splits The boundaries of the segments
+     * @param index  The index of the segment
+     * @param before The number of errors found before the segment, counted towards the limit
+     * @return The result of lexing the segment
+     */
+    private LexingResult segment(final TextSource source, final int[] splits, final int index, final int before) {
+        return new LexingFSM(source.region(splits[index], splits[index + 1]), this.monitor, this.limit, before)
+            .tokenize();
+    }
+
+    /**
+     * Finds the chunk boundaries, each following a line break, plus the start and end of the text.
+     *
+     * @return ascending distinct offsets, starting with {@code 0} and ending with the text length
+     */
+    private int[] bounds() {
+        int length = this.text.length();
+        return IntStream.concat(
+            IntStream.iterate(this.chunk, from -> from < length, from -> from + this.chunk)
+                .map(this::lineAfter)
+                .filter(bound -> bound < length),
+            IntStream.of(0, length)
+        ).sorted().distinct().toArray();
+    }
+
+    /**
+     * Finds the boundaries at which the lexer is outside of a string literal.
+     *
+     * @param bounds the chunk boundaries
+     * @return the boundaries to split the text at, starting with {@code 0} and ending with the text length
+     */
+    private int[] splits(final int[] bounds) {
+        Modes[] modes = this.pool.submit(
+            () -> IntStream.range(0, bounds.length - 1)
+                .parallel()
+                .mapToObj(i -> this.modes(bounds[i], bounds[i + 1]))
+                .toArray(Modes[]::new)
+        ).join();
+        IntStream.Builder splits = IntStream.builder().add(0);
+        boolean string = false;
+        for (int i = 0; i < modes.length; i++) {
+            if (i > 0 && !string) {
+                splits.add(bounds[i]);
+            }
+            string = modes[i].exit(string);
+        }
+        return IntStream.concat(splits.build(), IntStream.of(bounds[bounds.length - 1])).toArray();
+    }
+
+    /**
+     * Returns the offset following the first line break at or after the given offset.
+     *
+     * @param from the offset to search from
+     * @return the offset of the next line, or the text length if there is none
+     */
+    private int lineAfter(final int from) {
+        int length = this.text.length();
+        int offset = from;
+        while (offset < length && this.text.charAt(offset) != '\n') {
+            offset++;
+        }
+        return Math.min(offset + 1, length);
+    }
+
+    /**
+     * Scans a chunk from both modes.
+     *
+     * @param from the offset of the first character of the chunk
+     * @param to   the offset following the last character of the chunk
+     * @return the modes the chunk leaves the lexer in
+     */
+    private Modes modes(final int from, final int to) {
+        int quote = this.closingQuote(from, to);
+        return new Modes(this.scan(from, to), quote == to || this.scan(quote + 1, to));
+    }
+
+    /**
+     * Scans characters starting outside of a string literal.
+     *
+     * @param from the offset of the first character
+     * @param to   the offset following the last character
+     * @return {@code true} if the lexer ends inside a string literal, {@code false} otherwise
+     */
+    private boolean scan(final int from, final int to) {
+        int offset = from;
+        while (offset < to) {
+            char current = this.text.charAt(offset);
+            if (current == '"') {
+                offset = this.closingQuote(offset + 1, to);
+                if (offset == to) {
+                    return true;
+                }
+            } else if (current == '/' && offset + 1 < to && this.text.charAt(offset + 1) == '/') {
+                while (offset < to && this.text.charAt(offset) != '\n') {
+                    offset++;
+                }
+            }
+            offset++;
+        }
+        return false;
+    }
+
+    /**
+     * Finds the quote closing a string literal, skipping the character after every backslash.
+     * <p>
+     * A character after a backslash never closes the literal: an escaped quote is part of it, and an invalid escape is
+     * never followed by a quote or a backslash.
+     *
+     * @param from the offset of the first character inside the literal
+     * @param to   the offset following the last character to search
+     * @return the offset of the closing quote, or {@code to} if the literal is not closed before it
+     */
+    private int closingQuote(final int from, final int to) {
+        int offset = from;
+        while (offset < to && this.text.charAt(offset) != '"') {
+            offset += this.text.charAt(offset) == '\\' ? 2 : 1;
+        }
+        return Math.min(offset, to);
+    }
+
+    /**
+     * Represents the modes a chunk leaves the lexer in, for either mode it is entered in.
+     *
+     * @param outside the exit mode when entered outside of a string literal, {@code true} meaning inside one
+     * @param inside  the exit mode when entered inside a string literal, {@code true} meaning inside one
+     */
+    private record Modes(boolean outside, boolean inside) {
+        /**
+         * Returns the exit mode for the given entry mode.
+         *
+         * @param string whether the chunk is entered inside a string literal
+         * @return whether the chunk is left inside a string literal
+         */
+        boolean exit(final boolean string) {
+            return string ? this.inside : this.outside;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.andreychh.lox.lexing;
+
+/**
+ * Represents a single edit of a text: a range of characters replaced by new ones.
+ * <p>
+ * {@snippet :
+ * TextEdit edit = new TextEdit(4, 1, "answer");
+ * String edited = edit.applied("var x = 42;").toString(); // "var answer = 42;"
+ *}
+ *
+ * @param offset   The offset of the first replaced character
+ * @param removed  The number of replaced characters
+ * @param inserted The characters inserted in their place
+ */
+public record TextEdit(int offset, int removed, CharSequence inserted) {
+    /**
+     * Applies the edit to the given text.
+     *
+     * @param text The text before the edit
+     * @return The text after the edit
+     */
+    public CharSequence applied(final CharSequence text) {
+        return new StringBuilder(text.length() + this.delta())
+            .append(text, 0, this.offset)
+            .append(this.inserted)
+            .append(text, this.offset + this.removed, text.length())
+            .toString();
+    }
+
+    /**
+     * Returns the change in length of the text.
+     *
+     * @return The number of inserted characters minus the number of removed ones
+     */
+    public int delta() {
+        return this.inserted.length() - this.removed;
+    }
+
+    /**
+     * Returns the offset following the inserted characters in the edited text.
+     *
+     * @return The offset from which the edited text equals the original one, shifted by {@link #delta()}
+     */
+    public int end() {
+        return this.offset + this.inserted.length();
+    }
+}
@@ -0,0 +1,390 @@
+package com.andreychh.lox.lexing;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import com.andreychh.lox.error.Error;
+import com.andreychh.lox.source.TextSource;
+import com.andreychh.lox.source.Utf8Text;
+import com.andreychh.lox.token.SymbolTable;
+import com.andreychh.lox.token.Token;
+import com.andreychh.lox.token.TokenBuffer;
+import com.andreychh.lox.token.TokenType;
+
+/**
+ * Keeps lexing results on disk, keyed by the SHA-256 hash of the source content, so an unchanged script is lexed once.
+ * The hash also covers the options the lexer runs with, such as its error limit, so results lexed with other options
+ * are kept apart.
+ * <p>
+ * An entry holds the symbol names, then for every token its type, start offset and length, followed by its symbol id
+ * for identifiers and string literals or its value for numeric literals, then the errors with their offsets and
+ * lengths. Lexemes and positions are not stored; they are read from the source content, which has the same hash and
+ * hence the same characters. A hit memory-maps the entry and fills a {@link TokenBuffer}
+ * from it, with no lexing at all. A miss lexes the content and writes the entry through a temporary file, so
+ * concurrent runs sharing the directory never read a partial entry.
+ * <p>
+ * Every hit refreshes the modification time of its entry. After a write, the entries least recently used are deleted
+ * until the directory fits in the given number of bytes. Entries written by another version of the format, or
+ * damaged, count as misses and are overwritten: every count and span read from an entry is checked against the rest
+ * of the entry and the source content before it is used. A directory that cannot be written, as on a read-only CI
+ * cache, still serves the entries it holds; results that cannot be stored are returned uncached.
+ * <p>
+ * {@snippet :
+ * TokenCache cache = new TokenCache(Path.of(".lox-cache"), 256L * 1024 * 1024);
+ * LexingResult result = cache.tokenize(ByteBuffer.wrap(bytes), text -> new LexingFSM(new TextSource(text)).tokenize());
+ *}
+ */
+public final class TokenCache {
+    private static final int MAGIC = 0x4C4F5854;
+    private static final int VERSION = 3;
+    private static final String SUFFIX = ".tokens";
+    private static final TokenType[] TYPES = TokenType.values();
+    private static final int TOKEN_BYTES = 9;
+    private static final int ERROR_BYTES = 12;
+
+    private final Path directory;
+    private final long capacity;
+    private final String options;
+
+    /**
+     * Creates a cache in the given directory for a lexer run with the given options.
+     *
+     * @param directory The directory holding the entries, created if missing
+     * @param capacity  The number of bytes the entries may take in total
+     * @param options   The options the lexer runs with, in any form that differs whenever its results may differ
+     */
+    public TokenCache(final Path directory, final long capacity, final String options) {
+        this.directory = directory;
+        this.capacity = capacity;
+        this.options = options;
+    }
+
+    /**
+     * Creates a cache in the given directory.
+     *
+     * @param directory The directory holding the entries, created if missing
+     * @param capacity  The number of bytes the entries may take in total
+     */
+    public TokenCache(final Path directory, final long capacity) {
+        this(directory, capacity, "");
+    }
+
+    /**
+     * Returns the lexing result of the given content, loading it from the cache or lexing and storing it.
+     *
+     * @param content The UTF-8 encoded source code, read from index 0 up to its limit
+     * @param lexer   The lexer to run on a miss, given the decoded content
+     * @return The lexical analysis result of the content
+     */
+    public LexingResult tokenize(final ByteBuffer content, final Function<CharSequence, LexingResult> lexer) {
+        CharSequence text = new Utf8Text(content);
+        Path entry = this.directory.resolve(this.hash(content) + SUFFIX);
+        return TokenCache.cached(entry, text).orElseGet(() -> this.stored(entry, lexer.apply(text)));
+    }
+
+    /**
+     * Loads an entry if there is a readable one, and marks it as just used.
+     *
+     * @param entry The path of the entry
+     * @param text  The source content the entry was written for
+     * @return The lexing result held by the entry, or nothing on a miss
+     */
+    private static Optional<LexingResult> cached(final Path entry, final CharSequence text) {
+        if (!Files.isRegularFile(entry)) {
+            return Optional.empty();
+        }
+        LexingResult loaded;
+        try {
+            loaded = TokenCache.loaded(entry, text);
+        } catch (IOException e) {
+            // The entry cannot be read, so it counts as a miss.
+            return Optional.empty();
+        } catch (BufferUnderflowException | IllegalStateException | IndexOutOfBoundsException e) {
+            // The entry is damaged or of another format, so it counts as a miss and is overwritten.
+            return Optional.empty();
+        }
+        try {
+            Files.setLastModifiedTime(entry, FileTime.from(Instant.now()));
+        } catch (IOException e) {
+            // The directory is read-only, so the entry is used without moving it up the eviction order.
+        }
+        return Optional.of(loaded);
+    }
+
+    /**
+     * Stores a lexing result and evicts entries beyond the capacity, unless the directory cannot be written.
+     *
+     * @param entry  The path of the entry
+     * @param result The lexing result to store
+     * @return The lexing result, whether it was stored or not
+     */
+    private LexingResult stored(final Path entry, final LexingResult result) {
+        try {
+            this.store(entry, result);
+            this.evict();
+        } catch (IOException e) {
+            // The directory is read-only or shared with a run that removed it, so the result stays uncached.
+        }
+        return result;
+    }
+
+    /**
+     * Writes an entry through a temporary file in the cache directory.
+     *
+     * @param entry  The path of the entry
+     * @param result The lexing result to store
+     * @throws IOException If the entry cannot be written
+     */
+    private void store(final Path entry, final LexingResult result) throws IOException {
+        Files.createDirectories(this.directory);
+        Path temporary = Files.createTempFile(this.directory, "entry", ".tmp");
+        try {
+            try (
+                DataOutputStream output = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporary))
+                )
+            ) {
+                TokenCache.write(output, result);
+            }
+            Files.move(temporary, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Deletes the least recently used entries until the rest fit in the capacity.
+     *
+     * @throws IOException If the directory cannot be listed
+     */
+    private void evict() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        try (Stream<Path> files = Files.list(this.directory)) {
+            for (Path file : files.filter(path -> path.toString().endsWith(SUFFIX)).toList()) {
+                try {
+                    BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                    entries.add(new Entry(file, attributes.lastModifiedTime(), attributes.size()));
+                } catch (NoSuchFileException e) {
+                    // Another run evicted the entry meanwhile.
+                }
+            }
+        }
+        entries.sort(Comparator.comparing(Entry::used).reversed());
+        long total = 0;
+        for (Entry entry : entries) {
+            total += entry.size();
+            if (total > this.capacity) {
+                Files.deleteIfExists(entry.path());
+            }
+        }
+    }
+
+    /**
+     * Encodes a lexing result, renumbering its symbols densely in order of first occurrence.
+     *
+     * @param output The stream to write to
+     * @param result The lexing result
+     * @throws IOException If the stream cannot be written
+     */
+    private static void write(final DataOutputStream output, final LexingResult result) throws IOException {
+        List<Token> tokens = result.tokens();
+        SymbolTable symbols = result.symbols();
+        Map<Integer, Integer> ids = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        for (Token token : tokens) {
+            if (token.symbol() != SymbolTable.NONE && !ids.containsKey(token.symbol())) {
+                ids.put(token.symbol(), names.size());
+                names.add(symbols.name(token.symbol()));
+            }
+        }
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeInt(names.size());
+        for (String name : names) {
+            TokenCache.write(output, name);
+        }
+        output.writeInt(tokens.size());
+        for (Token token : tokens) {
+            output.writeByte(token.type().ordinal());
+            output.writeInt(token.offset());
+            output.writeInt(token.text().length());
+            if (TokenCache.named(token.type())) {
+                output.writeInt(ids.getOrDefault(token.symbol(), SymbolTable.NONE));
+            }
+            if (token.type() == TokenType.NUMBER) {
+                output.writeDouble(token.number());
+            }
+        }
+        output.writeInt(result.errors().size());
+        for (Error error : result.errors()) {
+            output.writeInt(error.offset());
+            output.writeInt(error.length());
+            TokenCache.write(output, error.message());
+        }
+    }
+
+    /**
+     * Encodes a string as its length in bytes followed by its UTF-8 bytes.
+     *
+     * @param output The stream to write to
+     * @param value  The string
+     * @throws IOException If the stream cannot be written
+     */
+    private static void write(final DataOutputStream output, final String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    /**
+     * Memory-maps an entry and decodes the lexing result it holds.
+     *
+     * @param entry The path of the entry
+     * @param text  The source content the entry was written for
+     * @return The lexing result, its tokens referring to the given content
+     * @throws IOException If the entry cannot be read
+     */
+    private static LexingResult loaded(final Path entry, final CharSequence text) throws IOException {
+        ByteBuffer data;
+        try (FileChannel channel = FileChannel.open(entry)) {
+            data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (data.getInt() != MAGIC || data.getInt() != VERSION) {
+            throw new IllegalStateException("Token cache entry '%s' has another format".formatted(entry));
+        }
+        SymbolTable symbols = new SymbolTable();
+        int names = TokenCache.count(data, Integer.BYTES);
+        for (int i = 0; i < names; i++) {
+            symbols.intern(TokenCache.read(data));
+        }
+        TextSource source = new TextSource(text);
+        TokenBuffer.Writer tokens = new TokenBuffer.Writer(source, symbols);
+        int count = TokenCache.count(data, TOKEN_BYTES);
+        for (int i = 0; i < count; i++) {
+            TokenType type = TYPES[data.get()];
+            int start = data.getInt();
+            int length = TokenCache.checked(start, data.getInt(), text);
+            int symbol = TokenCache.named(type) ? data.getInt() : SymbolTable.NONE;
+            if (symbol < SymbolTable.NONE || symbol >= names) {
+                throw new IllegalStateException("Token cache entry refers to symbol %d of %d".formatted(symbol, names));
+            }
+            tokens.write(type, start, length, symbol, type == TokenType.NUMBER ? data.getDouble() : Double.NaN);
+        }
+        List<Error> errors = new ArrayList<>();
+        int failures = TokenCache.count(data, ERROR_BYTES);
+        for (int i = 0; i < failures; i++) {
+            int offset = data.getInt();
+            int length = TokenCache.checked(offset, data.getInt(), text);
+            errors.add(new Error(TokenCache.read(data), offset, length, source.positions()));
+        }
+        return new LexingResult(tokens.buffer(), errors);
+    }
+
+    /**
+     * Decodes a string written by {@link #write(DataOutputStream, String)}.
+     *
+     * @param data The entry, positioned at the string
+     * @return The string
+     */
+    private static String read(final ByteBuffer data) {
+        byte[] bytes = new byte[TokenCache.count(data, 1)];
+        data.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads the number of items that follow, checking that the rest of the entry can hold them.
+     *
+     * @param data The entry, positioned at the number
+     * @param size The least number of bytes an item takes
+     * @return The number of items
+     * @throws IllegalStateException If the number is negative or the entry is too short for that many items
+     */
+    private static int count(final ByteBuffer data, final int size) {
+        int count = data.getInt();
+        if (count < 0 || count > data.remaining() / size) {
+            throw new IllegalStateException(
+                "Token cache entry holds %d items in %d bytes".formatted(count, data.remaining())
+            );
+        }
+        return count;
+    }
+
+    /**
+     * Checks that a span read from an entry lies within the source content.
+     *
+     * @param start  The offset of the first character of the span
+     * @param length The number of characters of the span
+     * @param text   The source content
+     * @return The length of the span
+     * @throws IllegalStateException If the span does not fit in the content
+     */
+    private static int checked(final int start, final int length, final CharSequence text) {
+        if (start < 0 || length < 0 || start > text.length() - length) {
+            throw new IllegalStateException(
+                "Token cache entry spans %d characters at %d of %d".formatted(length, start, text.length())
+            );
+        }
+        return length;
+    }
+
+    /**
+     * Checks whether tokens of the given type may carry a symbol.
+     *
+     * @param type The token type
+     * @return {@code true} for identifiers and string literals, {@code false} otherwise
+     */
+    private static boolean named(final TokenType type) {
+        return type == TokenType.IDENTIFIER || type == TokenType.STRING;
+    }
+
+    /**
+     * Hashes the options and the content with SHA-256.
+     *
+     * @param content The content, read from index 0 up to its limit
+     * @return The hash as lowercase hexadecimal digits
+     */
+    private String hash(final ByteBuffer content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(this.options.getBytes(StandardCharsets.UTF_8));
+            digest.update(content.slice(0, content.limit()));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Represents an entry found in the cache directory.
+     *
+     * @param path The path of the entry
+     * @param used The time the entry was last written or read
+     * @param size The number of bytes of the entry
+     */
+    private record Entry(Path path, FileTime used, long size) {
+    }
+}
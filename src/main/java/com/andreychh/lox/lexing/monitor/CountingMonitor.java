@@ -0,0 +1,227 @@
+package com.andreychh.lox.lexing.monitor;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import com.andreychh.lox.lexing.LexingResult;
+import com.andreychh.lox.lexing.state.LexingState;
+import com.andreychh.lox.source.Source;
+import com.andreychh.lox.token.Token;
+import com.andreychh.lox.token.TokenType;
+
+/**
+ * Implements a {@link LexingMonitor} that counts what the lexer does, also readable as a JMX MXBean.
+ * <p>
+ * It counts transitions by the class of the state left, tokens by type, the characters and time of every run, and
+ * the positions resolved for tokens and errors, with the time they took. Counters are {@link LongAdder}s, so lexers on
+ * several threads can share one monitor. Throughput is computed over the summed run times, so for parallel lexing it
+ * is the throughput of one lexing thread.
+ * <p>
+ * {@snippet :
+ * CountingMonitor stats = new CountingMonitor();
+ * LexingResult result = new LexingFSM(new TextSource(code), stats).tokenize();
+ * stats.report(System.out);
+ *}
+ */
+public final class CountingMonitor implements LexingMonitor, LexingStatsMXBean {
+    private static final TokenType[] TYPES = TokenType.values();
+    private static final double SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final double MILLISECOND = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final ConcurrentMap<String, LongAdder> transitions;
+    private final LongAdder[] types;
+    private final LongAdder runs;
+    private final LongAdder characters;
+    private final LongAdder nanos;
+    private final LongAdder resolutions;
+    private final LongAdder resolving;
+
+    /**
+     * Constructs a monitor with every counter at zero.
+     */
+    public CountingMonitor() {
+        this.transitions = new ConcurrentHashMap<>();
+        this.types = Arrays.stream(TYPES).map(type -> new LongAdder()).toArray(LongAdder[]::new);
+        this.runs = new LongAdder();
+        this.characters = new LongAdder();
+        this.nanos = new LongAdder();
+        this.resolutions = new LongAdder();
+        this.resolving = new LongAdder();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Decorates the source so that resolving the positions of its tokens and errors is timed.
+     */
+    @Override
+    public Source watched(final Source source) {
+        return new MonitoredSource(
+            source,
+            time -> {
+                this.resolutions.increment();
+                this.resolving.add(time);
+            }
+        );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void transition(final LexingState state) {
+        this.transitions.computeIfAbsent(state.getClass().getSimpleName(), name -> new LongAdder()).increment();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Counts the tokens by type, and the characters up to the end of the last token, which is the end-of-file token
+     * unless the run stopped at its error limit.
+     */
+    @Override
+    public void finished(final LexingResult result, final int from, final long time) {
+        List<Token> tokens = result.tokens();
+        for (Token token : tokens) {
+            this.types[token.type().ordinal()].increment();
+        }
+        if (!tokens.isEmpty()) {
+            this.characters.add(tokens.getLast().offset() + tokens.getLast().text().length() - from);
+        }
+        this.nanos.add(time);
+        this.runs.increment();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void report(final PrintStream output) {
+        output.println("Stats:");
+        output.printf("Runs: %,d in %.3f ms%n", this.getRuns(), this.getLexingNanos() / MILLISECOND);
+        output.printf("Characters: %,d (%,.0f/s)%n", this.getCharacters(), this.getCharactersPerSecond());
+        output.printf("Tokens: %,d (%,.0f/s)%n", this.getTokens(), this.getTokensPerSecond());
+        output.printf(
+            "Positions: %,d in %.3f ms%n",
+            this.getPositionResolutions(),
+            this.getPositionNanos() / MILLISECOND
+        );
+        output.println("Transitions:");
+        this.getTransitions().forEach((state, count) -> output.printf("  %s: %,d%n", state, count));
+        output.println("Token types:");
+        this.getTokenTypes().forEach((type, count) -> output.printf("  %s: %,d%n", type, count));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getRuns() {
+        return this.runs.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getCharacters() {
+        return this.characters.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getTokens() {
+        return Arrays.stream(this.types).mapToLong(LongAdder::sum).sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getLexingNanos() {
+        return this.nanos.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getCharactersPerSecond() {
+        return this.perSecond(this.getCharacters());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getTokensPerSecond() {
+        return this.perSecond(this.getTokens());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getPositionResolutions() {
+        return this.resolutions.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getPositionNanos() {
+        return this.resolving.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Long> getTransitions() {
+        return this.transitions.entrySet().stream().collect(
+            Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().sum(), Long::sum, TreeMap::new)
+        );
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Types without tokens are left out.
+     */
+    @Override
+    public Map<String, Long> getTokenTypes() {
+        Map<String, Long> counts = new TreeMap<>();
+        for (TokenType type : TYPES) {
+            long count = this.types[type.ordinal()].sum();
+            if (count > 0) {
+                counts.put(type.name(), count);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Divides a count by the lexing time.
+     *
+     * @param count the count
+     * @return the count per second of lexing time, or {@code 0} if no time was spent
+     */
+    private double perSecond(final long count) {
+        long time = this.getLexingNanos();
+        if (time == 0) {
+            return 0;
+        }
+        return count * SECOND / time;
+    }
+}
@@ -0,0 +1,46 @@
+package com.andreychh.lox.lexing.monitor;
+
+import java.io.PrintStream;
+
+import com.andreychh.lox.lexing.LexingResult;
+import com.andreychh.lox.lexing.state.LexingState;
+import com.andreychh.lox.source.Source;
+
+/**
+ * Observes lexing runs, to tell where lexing time goes.
+ * <p>
+ * A lexer hands every run's source to {@link #watched(Source)}, reports every state it leaves and reports the result
+ * when the run is over. Implementations must be safe to call from several lexing threads at once.
+ */
+public interface LexingMonitor {
+    /**
+     * Returns the source a run should read, possibly decorated to observe it.
+     *
+     * @param source The source of the run
+     * @return The source to lex
+     */
+    Source watched(Source source);
+
+    /**
+     * Records that the lexer leaves the given state.
+     *
+     * @param state The state about to perform its transition
+     */
+    void transition(LexingState state);
+
+    /**
+     * Records a finished run.
+     *
+     * @param result The result of the run
+     * @param from   The offset the run started at
+     * @param nanos  The time the run took, in nanoseconds
+     */
+    void finished(LexingResult result, int from, long nanos);
+
+    /**
+     * Prints what has been observed so far.
+     *
+     * @param output The stream to print to
+     */
+    void report(PrintStream output);
+}
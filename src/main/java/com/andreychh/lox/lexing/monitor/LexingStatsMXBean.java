@@ -0,0 +1,78 @@
+package com.andreychh.lox.lexing.monitor;
+
+import java.util.Map;
+
+/**
+ * Exposes lexing statistics through JMX.
+ */
+public interface LexingStatsMXBean {
+    /**
+     * Returns the number of lexing runs.
+     *
+     * @return the number of finished runs
+     */
+    long getRuns();
+
+    /**
+     * Returns the number of characters lexed.
+     *
+     * @return the number of characters over all runs
+     */
+    long getCharacters();
+
+    /**
+     * Returns the number of tokens produced.
+     *
+     * @return the number of tokens over all runs, counting the end-of-file token of each run
+     */
+    long getTokens();
+
+    /**
+     * Returns the time spent lexing.
+     *
+     * @return the sum of the run times, in nanoseconds
+     */
+    long getLexingNanos();
+
+    /**
+     * Returns the lexing throughput in characters.
+     *
+     * @return the characters lexed per second of lexing time
+     */
+    double getCharactersPerSecond();
+
+    /**
+     * Returns the lexing throughput in tokens.
+     *
+     * @return the tokens produced per second of lexing time
+     */
+    double getTokensPerSecond();
+
+    /**
+     * Returns the number of positions resolved from offsets.
+     *
+     * @return the number of positions resolved for tokens and errors of observed runs
+     */
+    long getPositionResolutions();
+
+    /**
+     * Returns the time spent resolving positions.
+     *
+     * @return the time spent in position resolution, in nanoseconds
+     */
+    long getPositionNanos();
+
+    /**
+     * Returns the number of transitions out of each kind of state.
+     *
+     * @return the transition counts by state class name
+     */
+    Map<String, Long> getTransitions();
+
+    /**
+     * Returns the number of tokens of each type.
+     *
+     * @return the token counts by token type name
+     */
+    Map<String, Long> getTokenTypes();
+}
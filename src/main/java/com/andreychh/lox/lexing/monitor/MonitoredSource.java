@@ -0,0 +1,128 @@
+package com.andreychh.lox.lexing.monitor;
+
+import java.util.function.LongConsumer;
+
+import com.andreychh.lox.Position;
+import com.andreychh.lox.source.CharClass;
+import com.andreychh.lox.source.Fragment;
+import com.andreychh.lox.source.PositionResolver;
+import com.andreychh.lox.source.Source;
+
+/**
+ * Decorates a {@link Source} to time every position it resolves.
+ * <p>
+ * Every source derived from this one is decorated as well, so the positions of tokens and errors resolved long after
+ * lexing, through {@link #positions()}, are timed too.
+ */
+final class MonitoredSource implements Source {
+    private final Source origin;
+    private final LongConsumer timer;
+
+    /**
+     * Constructs a decorator of the given source.
+     *
+     * @param origin the source to decorate
+     * @param timer  the consumer of the time each resolution took, in nanoseconds
+     */
+    MonitoredSource(final Source origin, final LongConsumer timer) {
+        this.origin = origin;
+        this.timer = timer;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasNext(final int count) {
+        return this.origin.hasNext(count);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String peek(final int offset) {
+        return this.origin.peek(offset);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public char peekChar(final int offset) {
+        return this.origin.peekChar(offset);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int span(final int from, final CharClass members) {
+        return this.origin.span(from, members);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int find(final int from, final char target) {
+        return this.origin.find(from, target);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Fragment take(final int count) {
+        Fragment taken = this.origin.take(count);
+        return new Fragment(taken.text(), new MonitoredSource(taken.remaining(), this.timer));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Source skip(final int count) {
+        return new MonitoredSource(this.origin.skip(count), this.timer);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int offset() {
+        return this.origin.offset();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean durable() {
+        return this.origin.durable();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Position position() {
+        return this.positions().position(this.origin.offset());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The returned resolver times every resolution.
+     */
+    @Override
+    public PositionResolver positions() {
+        PositionResolver resolver = this.origin.positions();
+        return offset -> {
+            long start = System.nanoTime();
+            Position position = resolver.position(offset);
+            this.timer.accept(System.nanoTime() - start);
+            return position;
+        };
+    }
+}
@@ -0,0 +1,49 @@
+package com.andreychh.lox.lexing.monitor;
+
+import java.io.PrintStream;
+
+import com.andreychh.lox.lexing.LexingResult;
+import com.andreychh.lox.lexing.state.LexingState;
+import com.andreychh.lox.source.Source;
+
+/**
+ * Implements a {@link LexingMonitor} that observes nothing.
+ * <p>
+ * Every method is empty or returns its argument, so once inlined it costs the lexer nothing. This is the monitor of a
+ * lexer that was not given one.
+ */
+public final class SilentMonitor implements LexingMonitor {
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Returns the source as it is.
+     */
+    @Override
+    public Source watched(final Source source) {
+        return source;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void transition(final LexingState state) {
+        // Nothing to record.
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void finished(final LexingResult result, final int from, final long nanos) {
+        // Nothing to record.
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void report(final PrintStream output) {
+        // Nothing to print.
+    }
+}
@@ -1,10 +1,7 @@
 package com.andreychh.lox.lexing.state;
 
 import com.andreychh.lox.lexing.LexingResult;
-import com.andreychh.lox.source.Fragment;
 import com.andreychh.lox.source.Source;
-import com.andreychh.lox.token.ExplicitToken;
-import com.andreychh.lox.token.Token;
 import com.andreychh.lox.token.TokenType;
 
 /**
@@ -33,18 +30,11 @@ public final class CompoundOperatorState implements LexingState {
      */
     @Override
     public LexingState next() {
-        Fragment taken = this.takeOperator();
-        Token token = new ExplicitToken(this.tokenType(taken.value()), taken.value(), this.source.position());
-        return new InitialState(taken.remaining(), this.result.withToken(token));
-    }
-
-    /**
-     * Takes the operator fragment from the source, handling both single and compound forms.
-     *
-     * @return The fragment representing the operator lexeme and the remaining source
-     */
-    private Fragment takeOperator() {
-        return this.isCompound() ? this.source.take(2) : this.source.take(1);
+        boolean compound = this.isCompound();
+        int length = compound ? 2 : 1;
+        TokenType type = this.tokenType(this.source.peekChar(0), compound);
+        LexingResult updated = this.result.withToken(type, this.source, length);
+        return new InitialState(this.source.skip(length), updated);
     }
 
     /**
@@ -53,27 +43,24 @@ public final class CompoundOperatorState implements LexingState {
      * @return {@code true} if the next character is '=', {@code false} otherwise
      */
     private boolean isCompound() {
-        return this.source.hasNext(2) && this.source.peek(1).equals("=");
+        return this.source.hasNext(2) && this.source.peekChar(1) == '=';
     }
 
     /**
-     * Determines the token type for the given lexeme.
+     * Determines the token type for the given operator.
      *
-     * @param lexeme The operator lexeme to classify
+     * @param operator The first character of the operator
+     * @param compound Whether the operator is followed by '='
      * @return The appropriate TokenType
      */
-    private TokenType tokenType(final String lexeme) {
-        return switch (lexeme) {
-            case "=" -> TokenType.EQUAL;
-            case "==" -> TokenType.EQUAL_EQUAL;
-            case "!" -> TokenType.BANG;
-            case "!=" -> TokenType.BANG_EQUAL;
-            case ">" -> TokenType.GREATER;
-            case ">=" -> TokenType.GREATER_EQUAL;
-            case "<" -> TokenType.LESS;
-            case "<=" -> TokenType.LESS_EQUAL;
+    private TokenType tokenType(final char operator, final boolean compound) {
+        return switch (operator) {
+            case '=' -> compound ? TokenType.EQUAL_EQUAL : TokenType.EQUAL;
+            case '!' -> compound ? TokenType.BANG_EQUAL : TokenType.BANG;
+            case '>' -> compound ? TokenType.GREATER_EQUAL : TokenType.GREATER;
+            case '<' -> compound ? TokenType.LESS_EQUAL : TokenType.LESS;
             default -> throw new IllegalArgumentException(
-                "Cannot determine token type for unexpected lexeme: '%s'".formatted(lexeme)
+                "Cannot determine token type for unexpected operator: '%s'".formatted(operator)
             );
         };
     }
@@ -93,4 +80,12 @@ public final class CompoundOperatorState implements LexingState {
     public LexingResult collectResult() {
         return this.result;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LexingState withResult(final LexingResult result) {
+        return new CompoundOperatorState(this.source, result);
+    }
 }
@@ -0,0 +1,146 @@
+package com.andreychh.lox.lexing.state;
+
+import java.util.Arrays;
+
+import com.andreychh.lox.error.Error;
+import com.andreychh.lox.lexing.LexingResult;
+import com.andreychh.lox.source.CharClass;
+import com.andreychh.lox.source.Source;
+import com.andreychh.lox.token.TokenType;
+
+/**
+ * Maps the next character of a source to the transition out of {@link InitialState}.
+ * <p>
+ * Transitions for ASCII characters are kept in a 128-entry table indexed by the character itself, so dispatching costs
+ * a single indexed load. Characters beyond ASCII are never part of Lox syntax and take the slow path that reports an
+ * unexpected character. A run of unexpected characters, such as a pasted binary blob, is reported as one error spanning
+ * the run, so bad input costs one transition and one error per run rather than per character. A whitespace character
+ * skips the whole run of whitespace and line comments it starts, so indentation and comment blocks cost one transition
+ * rather than one per character or per line.
+ */
+final class DispatchTable {
+    private static final int ASCII = 128;
+    private static final int PREVIEW = 16;
+
+    private final Transition[] transitions;
+    private final CharClass invalid;
+
+    /**
+     * Builds the table of transitions for every ASCII character.
+     */
+    DispatchTable() {
+        this.transitions = new Transition[ASCII];
+        Transition fallback = this::unexpected;
+        Arrays.fill(this.transitions, fallback);
+        this.assign(" \t\n\r", (source, result) -> new InitialState(new Trivia(source).end(), result));
+        this.assign("!=><", CompoundOperatorState::new);
+        this.assign("/", SlashState::new);
+        this.assign("\"", StringState::new);
+        this.assign("0123456789", NumberState::new);
+        this.assign("_abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ", IdentifierState::new);
+        this.punctuation('(', TokenType.LEFT_PAREN);
+        this.punctuation(')', TokenType.RIGHT_PAREN);
+        this.punctuation('{', TokenType.LEFT_BRACE);
+        this.punctuation('}', TokenType.RIGHT_BRACE);
+        this.punctuation('.', TokenType.DOT);
+        this.punctuation(',', TokenType.COMMA);
+        this.punctuation(';', TokenType.SEMICOLON);
+        this.punctuation('+', TokenType.PLUS);
+        this.punctuation('-', TokenType.MINUS);
+        this.punctuation('*', TokenType.STAR);
+        this.invalid = this.unassigned(fallback);
+    }
+
+    /**
+     * Transitions out of the initial state according to the next character of the source.
+     *
+     * @param source The source code at the current position, with at least one character remaining
+     * @param result The accumulated lexing result
+     * @return The next lexing state
+     */
+    LexingState next(final Source source, final LexingResult result) {
+        char character = source.peekChar(0);
+        if (character < ASCII) {
+            return this.transitions[character].next(source, result);
+        }
+        return this.unexpected(source, result);
+    }
+
+    /**
+     * Collects the characters that take the fallback transition.
+     *
+     * @param fallback The transition of characters that start no token
+     * @return The class of characters beyond ASCII and of ASCII characters left with the fallback
+     */
+    private CharClass unassigned(final Transition fallback) {
+        StringBuilder assigned = new StringBuilder();
+        for (char character = 0; character < ASCII; character++) {
+            if (this.transitions[character] != fallback) {
+                assigned.append(character);
+            }
+        }
+        return new CharClass(assigned.toString()).negated();
+    }
+
+    /**
+     * Assigns the same transition to each of the given characters.
+     *
+     * @param characters The characters to assign the transition to
+     * @param transition The transition taken on any of the characters
+     */
+    private void assign(final String characters, final Transition transition) {
+        for (int i = 0; i < characters.length(); i++) {
+            this.transitions[characters.charAt(i)] = transition;
+        }
+    }
+
+    /**
+     * Assigns a transition that emits a single-character token for the given character.
+     *
+     * @param character The punctuation character
+     * @param type      The type of the emitted token
+     */
+    private void punctuation(final char character, final TokenType type) {
+        this.assign(String.valueOf(character), (source, result) -> new InitialState(
+            source.skip(1),
+            result.withToken(type, source, 1)
+        ));
+    }
+
+    /**
+     * Reports the run of unexpected characters starting at the next one as a single error and skips it.
+     * <p>
+     * The message quotes at most the first sixteen characters of the run, so a long run is not copied.
+     *
+     * @param source The source code positioned at the unexpected character
+     * @param result The accumulated lexing result
+     * @return The initial state after the run
+     */
+    private LexingState unexpected(final Source source, final LexingResult result) {
+        int length = source.span(0, this.invalid);
+        String message;
+        if (length == 1) {
+            message = "Unexpected character '%s'.".formatted(source.take(1).value());
+        } else if (length <= PREVIEW) {
+            message = "Unexpected characters '%s'.".formatted(source.take(length).value());
+        } else {
+            message = "Unexpected characters '%s...'.".formatted(source.take(PREVIEW).value());
+        }
+        Error error = new Error(message, source.offset(), length, source.positions());
+        return new InitialState(source.skip(length), result.withError(error));
+    }
+
+    /**
+     * Represents a transition out of the initial state.
+     */
+    private interface Transition {
+        /**
+         * Transitions to the next state.
+         *
+         * @param source The source code at the current position
+         * @param result The accumulated lexing result
+         * @return The next lexing state
+         */
+        LexingState next(Source source, LexingResult result);
+    }
+}
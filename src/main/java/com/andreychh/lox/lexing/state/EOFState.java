@@ -2,8 +2,6 @@ package com.andreychh.lox.lexing.state;
 
 import com.andreychh.lox.lexing.LexingResult;
 import com.andreychh.lox.source.Source;
-import com.andreychh.lox.token.ExplicitToken;
-import com.andreychh.lox.token.Token;
 import com.andreychh.lox.token.TokenType;
 
 /**
@@ -29,8 +27,7 @@ public final class EOFState implements LexingState {
      */
     @Override
     public LexingState next() {
-        Token token = new ExplicitToken(TokenType.EOF, "", this.source.position());
-        return new TerminatedState(this.result.withToken(token));
+        return new TerminatedState(this.result.withToken(TokenType.EOF, this.source, 0));
     }
 
     /**
@@ -48,4 +45,12 @@ public final class EOFState implements LexingState {
     public LexingResult collectResult() {
         return this.result;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LexingState withResult(final LexingResult result) {
+        return new EOFState(this.source, result);
+    }
 }
@@ -0,0 +1,70 @@
+package com.andreychh.lox.lexing.state;
+
+import com.andreychh.lox.source.CharClass;
+import com.andreychh.lox.source.Source;
+
+/**
+ * Measures the escape sequences of string literals.
+ * <p>
+ * A backslash may be followed by {@code n}, {@code t}, {@code "} or {@code \}, or by {@code u} and four hexadecimal
+ * digits. The lexer looks for escapes only where a run of plain characters ends at a backslash, and leaves decoding to
+ * {@link com.andreychh.lox.token.StringLiteral}.
+ * <p>
+ * {@snippet :
+ * Escapes escapes = new Escapes();
+ * int length = escapes.length(new TextSource("\\u0041"), 0); // 6
+ * int invalid = escapes.length(new TextSource("\\q"), 0); // 0
+ *}
+ */
+public final class Escapes {
+    private static final CharClass SIMPLE = new CharClass("nt\"\\");
+    private static final CharClass HEX = new CharClass("0123456789abcdefABCDEF");
+    private static final int DIGITS = 4;
+
+    /**
+     * Measures the escape sequence starting at a backslash of a source.
+     *
+     * @param source the source code
+     * @param offset the offset of the backslash from the current position of the source
+     * @return the number of characters of the sequence, or {@code 0} if it is not a valid one
+     */
+    public int length(final Source source, final int offset) {
+        if (!source.hasNext(offset + 2)) {
+            return 0;
+        }
+        char kind = source.peekChar(offset + 1);
+        if (SIMPLE.contains(kind)) {
+            return 2;
+        }
+        if (kind == 'u' && source.hasNext(offset + 2 + DIGITS) && source.span(offset + 2, HEX) >= DIGITS) {
+            return 2 + DIGITS;
+        }
+        return 0;
+    }
+
+    /**
+     * Measures the escape sequence starting at a backslash of a text.
+     *
+     * @param text   the text
+     * @param offset the offset of the backslash
+     * @return the number of characters of the sequence, or {@code 0} if it is not a valid one
+     */
+    public int length(final CharSequence text, final int offset) {
+        if (offset + 2 > text.length()) {
+            return 0;
+        }
+        char kind = text.charAt(offset + 1);
+        if (SIMPLE.contains(kind)) {
+            return 2;
+        }
+        if (kind != 'u' || offset + 2 + DIGITS > text.length()) {
+            return 0;
+        }
+        for (int i = offset + 2; i < offset + 2 + DIGITS; i++) {
+            if (!HEX.contains(text.charAt(i))) {
+                return 0;
+            }
+        }
+        return 2 + DIGITS;
+    }
+}
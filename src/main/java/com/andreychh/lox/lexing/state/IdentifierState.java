@@ -1,11 +1,8 @@
 package com.andreychh.lox.lexing.state;
 
 import com.andreychh.lox.lexing.LexingResult;
-import com.andreychh.lox.source.Fragment;
-import com.andreychh.lox.source.PatternSource;
+import com.andreychh.lox.source.CharClass;
 import com.andreychh.lox.source.Source;
-import com.andreychh.lox.token.ExplicitToken;
-import com.andreychh.lox.token.Token;
 import com.andreychh.lox.token.TokenType;
 
 /**
@@ -15,6 +12,12 @@ import com.andreychh.lox.token.TokenType;
  * @implNote Expects {@code source.take(1)} to return a letter or underscore
  */
 public final class IdentifierState implements LexingState {
+    private static final CharClass IDENTIFIER = new CharClass('0', '9')
+        .union(new CharClass('a', 'z'))
+        .union(new CharClass('A', 'Z'))
+        .union(new CharClass("_"));
+    private static final Keywords KEYWORDS = new Keywords();
+
     private final Source source;
     private final LexingResult result;
 
@@ -31,40 +34,18 @@ public final class IdentifierState implements LexingState {
 
     /**
      * Consumes the identifier and creates the appropriate token (keyword or identifier).
+     * <p>
+     * The keyword check reads the source characters directly, so the lexeme is only extracted once its type is known.
+     * Identifiers are interned in the symbol table of the run, so repeated names share one string and one id.
      */
     @Override
     public LexingState next() {
-        Fragment taken = new PatternSource(this.source).take("[0-9a-zA-Z_]");
-        Token token = new ExplicitToken(this.tokenType(taken.value()), taken.value(), this.source.position());
-        return new InitialState(taken.remaining(), this.result.withToken(token));
-    }
-
-    /**
-     * Determines the token type for the given lexeme.
-     *
-     * @param lexeme The identifier lexeme to classify
-     * @return The appropriate TokenType (keyword or IDENTIFIER)
-     */
-    private TokenType tokenType(final String lexeme) {
-        return switch (lexeme) {
-            case "and" -> TokenType.AND;
-            case "class" -> TokenType.CLASS;
-            case "else" -> TokenType.ELSE;
-            case "false" -> TokenType.FALSE;
-            case "for" -> TokenType.FOR;
-            case "fun" -> TokenType.FUN;
-            case "if" -> TokenType.IF;
-            case "nil" -> TokenType.NIL;
-            case "or" -> TokenType.OR;
-            case "print" -> TokenType.PRINT;
-            case "return" -> TokenType.RETURN;
-            case "super" -> TokenType.SUPER;
-            case "this" -> TokenType.THIS;
-            case "true" -> TokenType.TRUE;
-            case "var" -> TokenType.VAR;
-            case "while" -> TokenType.WHILE;
-            default -> TokenType.IDENTIFIER;
-        };
+        int length = this.source.span(0, IDENTIFIER);
+        TokenType type = KEYWORDS.type(this.source, length);
+        LexingResult updated = type == TokenType.IDENTIFIER
+            ? this.result.withSymbol(type, this.source, length)
+            : this.result.withToken(type, this.source, length);
+        return new InitialState(this.source.skip(length), updated);
     }
 
     /**
@@ -82,4 +63,12 @@ public final class IdentifierState implements LexingState {
     public LexingResult collectResult() {
         return this.result;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LexingState withResult(final LexingResult result) {
+        return new IdentifierState(this.source, result);
+    }
 }
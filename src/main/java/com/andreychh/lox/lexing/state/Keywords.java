@@ -0,0 +1,146 @@
+package com.andreychh.lox.lexing.state;
+
+import java.util.List;
+
+import com.andreychh.lox.source.Source;
+import com.andreychh.lox.token.TokenType;
+
+/**
+ * Recognizes Lox keywords straight from source characters, without materializing the lexeme.
+ * <p>
+ * Keywords are grouped by their first character, so an identifier is compared against at most three candidates, and a
+ * candidate is only compared character by character when its length matches. Identifiers starting with an uppercase
+ * letter, a digit or an underscore are rejected by a single range check.
+ */
+public final class Keywords {
+    private static final int LETTERS = 26;
+
+    private final Keyword[][] candidates;
+
+    /**
+     * Builds the table of the sixteen Lox keywords.
+     */
+    public Keywords() {
+        this(List.of(
+            new Keyword("and", TokenType.AND),
+            new Keyword("class", TokenType.CLASS),
+            new Keyword("else", TokenType.ELSE),
+            new Keyword("false", TokenType.FALSE),
+            new Keyword("for", TokenType.FOR),
+            new Keyword("fun", TokenType.FUN),
+            new Keyword("if", TokenType.IF),
+            new Keyword("nil", TokenType.NIL),
+            new Keyword("or", TokenType.OR),
+            new Keyword("print", TokenType.PRINT),
+            new Keyword("return", TokenType.RETURN),
+            new Keyword("super", TokenType.SUPER),
+            new Keyword("this", TokenType.THIS),
+            new Keyword("true", TokenType.TRUE),
+            new Keyword("var", TokenType.VAR),
+            new Keyword("while", TokenType.WHILE)
+        ));
+    }
+
+    /**
+     * Builds the table of the given keywords.
+     *
+     * @param keywords The keywords, each starting with a lowercase ASCII letter
+     */
+    private Keywords(final List<Keyword> keywords) {
+        this.candidates = new Keyword[LETTERS][];
+        for (int letter = 0; letter < LETTERS; letter++) {
+            char first = (char) ('a' + letter);
+            this.candidates[letter] = keywords.stream()
+                .filter(keyword -> keyword.word().charAt(0) == first)
+                .toArray(Keyword[]::new);
+        }
+    }
+
+    /**
+     * Determines the token type of the identifier at the start of the source.
+     *
+     * @param source The source positioned at the identifier
+     * @param length The length of the identifier
+     * @return The keyword type, or {@link TokenType#IDENTIFIER} if the identifier is not a keyword
+     */
+    public TokenType type(final Source source, final int length) {
+        char first = source.peekChar(0);
+        if (first < 'a' || first > 'z') {
+            return TokenType.IDENTIFIER;
+        }
+        for (Keyword keyword : this.candidates[first - 'a']) {
+            if (keyword.matches(source, length)) {
+                return keyword.type();
+            }
+        }
+        return TokenType.IDENTIFIER;
+    }
+
+    /**
+     * Determines the token type of the identifier spanning the given characters of a text.
+     *
+     * @param text   The text holding the identifier
+     * @param start  The offset of the first character of the identifier
+     * @param length The length of the identifier
+     * @return The keyword type, or {@link TokenType#IDENTIFIER} if the identifier is not a keyword
+     */
+    public TokenType type(final CharSequence text, final int start, final int length) {
+        char first = text.charAt(start);
+        if (first < 'a' || first > 'z') {
+            return TokenType.IDENTIFIER;
+        }
+        for (Keyword keyword : this.candidates[first - 'a']) {
+            if (keyword.matches(text, start, length)) {
+                return keyword.type();
+            }
+        }
+        return TokenType.IDENTIFIER;
+    }
+
+    /**
+     * Represents a keyword and the token type it produces.
+     *
+     * @param word The spelling of the keyword
+     * @param type The token type of the keyword
+     */
+    private record Keyword(String word, TokenType type) {
+        /**
+         * Checks whether the identifier at the start of the source spells this keyword.
+         *
+         * @param source The source positioned at the identifier, whose first character is already known to match
+         * @param length The length of the identifier
+         * @return {@code true} if the identifier is this keyword, {@code false} otherwise
+         */
+        boolean matches(final Source source, final int length) {
+            if (this.word.length() != length) {
+                return false;
+            }
+            for (int i = 1; i < length; i++) {
+                if (this.word.charAt(i) != source.peekChar(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Checks whether the identifier spanning the given characters of a text spells this keyword.
+         *
+         * @param text   The text holding the identifier, whose first character is already known to match
+         * @param start  The offset of the first character of the identifier
+         * @param length The length of the identifier
+         * @return {@code true} if the identifier is this keyword, {@code false} otherwise
+         */
+        boolean matches(final CharSequence text, final int start, final int length) {
+            if (this.word.length() != length) {
+                return false;
+            }
+            for (int i = 1; i < length; i++) {
+                if (this.word.charAt(i) != text.charAt(start + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -33,4 +33,15 @@ public interface LexingState {
      * @return All tokens and errors collected up to this state
      */
     LexingResult collectResult();
+
+    /**
+     * Returns this state carrying the given result instead of its own.
+     * <p>
+     * Lexing resumes from the same position in the source, so a caller can take the tokens collected so far and
+     * continue with a result that no longer holds them.
+     *
+     * @param result The result to continue with
+     * @return A state at the same position with the given result
+     */
+    LexingState withResult(LexingResult result);
 }
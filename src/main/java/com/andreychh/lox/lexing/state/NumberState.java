@@ -1,19 +1,28 @@
 package com.andreychh.lox.lexing.state;
 
 import com.andreychh.lox.lexing.LexingResult;
-import com.andreychh.lox.source.Fragment;
-import com.andreychh.lox.source.PatternSource;
+import com.andreychh.lox.source.CharClass;
 import com.andreychh.lox.source.Source;
-import com.andreychh.lox.token.ExplicitToken;
-import com.andreychh.lox.token.Token;
-import com.andreychh.lox.token.TokenType;
 
 /**
  * Represents a state that processes numeric literals (integers and decimals).
+ * <p>
+ * The value of the literal is decoded here, so consumers of {@code NUMBER} tokens never parse their text. A literal of
+ * at most fifteen digits is decoded exactly from its digits: the digits form an integer below {@code 2^53}, and
+ * dividing it by an exact power of ten rounds correctly, giving the same value as {@link Double#parseDouble(String)}.
+ * Longer literals fall back to that method.
  *
  * @apiNote Expects {@code source.take(1)} to return a digit character
  */
 public final class NumberState implements LexingState {
+    private static final CharClass DIGIT = new CharClass('0', '9');
+    private static final CharClass DOT = new CharClass(".");
+    private static final int DIGITS = 15;
+    private static final int RADIX = 10;
+    private static final double[] POWERS = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15,
+    };
+
     private final Source source;
     private final LexingResult result;
 
@@ -29,40 +38,49 @@ public final class NumberState implements LexingState {
     }
 
     /**
-     * Consumes the numeric literal and creates a NUMBER token.
+     * Consumes the numeric literal and creates a NUMBER token carrying its value.
      */
     @Override
     public LexingState next() {
-        Fragment taken = this.takeNumber();
-        Token token = new ExplicitToken(TokenType.NUMBER, taken.value(), this.source.position());
-        return new InitialState(taken.remaining(), this.result.withToken(token));
+        int integer = this.source.span(0, DIGIT);
+        int fraction = this.hasFraction(integer) ? this.source.span(integer + 1, DIGIT) : 0;
+        int length = fraction > 0 ? integer + 1 + fraction : integer;
+        LexingResult updated = this.result.withNumber(this.source, length, this.value(integer, fraction));
+        return new InitialState(this.source.skip(length), updated);
     }
 
     /**
-     * Takes a numeric literal from the source, supporting integer and decimal forms.
+     * Decodes the value of the numeric literal at the start of the source.
      *
-     * @return Fragment containing the full numeric lexeme and remaining source
+     * @param integer  The number of digits before the dot
+     * @param fraction The number of digits after the dot, {@code 0} if there is no fraction
+     * @return The value of the literal
      */
-    private Fragment takeNumber() {
-        Fragment integer = new PatternSource(this.source).take("[0-9]");
-        StringBuilder lexeme = new StringBuilder(integer.value());
-        Source remaining = integer.remaining();
-        if (this.hasFraction(remaining)) {
-            Fragment fraction = new PatternSource(remaining.skip(1)).take("[0-9]");
-            lexeme.append('.').append(fraction.value());
-            remaining = fraction.remaining();
+    private double value(final int integer, final int fraction) {
+        if (integer + fraction > DIGITS) {
+            int length = fraction > 0 ? integer + 1 + fraction : integer;
+            return Double.parseDouble(this.source.take(length).value());
+        }
+        long digits = 0;
+        for (int i = 0; i < integer; i++) {
+            digits = digits * RADIX + this.source.peekChar(i) - '0';
+        }
+        for (int i = integer + 1; i <= integer + fraction; i++) {
+            digits = digits * RADIX + this.source.peekChar(i) - '0';
         }
-        return new Fragment(lexeme.toString(), remaining);
+        return digits / POWERS[fraction];
     }
 
     /**
      * Checks if the numeric literal has a fractional part (dot followed by digits).
      *
-     * @param source The source to check for a fraction
+     * @param integer The number of characters in the integer part
      * @return {@code true} if a fraction exists, {@code false} otherwise
      */
-    private boolean hasFraction(final Source source) {
-        return new PatternSource(source).matches(new String[]{"\\.", "[0-9]"});
+    private boolean hasFraction(final int integer) {
+        return this.source.hasNext(integer + 2)
+            && DOT.contains(this.source.peekChar(integer))
+            && DIGIT.contains(this.source.peekChar(integer + 1));
     }
 
     /**
@@ -80,4 +98,12 @@ public final class NumberState implements LexingState {
     public LexingResult collectResult() {
         return this.result;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LexingState withResult(final LexingResult result) {
+        return new NumberState(this.source, result);
+    }
 }
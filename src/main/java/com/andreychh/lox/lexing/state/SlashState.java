@@ -1,9 +1,7 @@
 package com.andreychh.lox.lexing.state;
 
 import com.andreychh.lox.lexing.LexingResult;
-import com.andreychh.lox.source.PatternSource;
 import com.andreychh.lox.source.Source;
-import com.andreychh.lox.token.ExplicitToken;
 import com.andreychh.lox.token.TokenType;
 
 /**
@@ -28,16 +26,16 @@ public final class SlashState implements LexingState {
     }
 
     /**
-     * Creates a SLASH token or skips a line comment based on the following character.
+     * Creates a SLASH token, or skips a line comment along with the whitespace and comments following it.
      */
     @Override
     public LexingState next() {
         return this.isComment() ? new InitialState(
-            new PatternSource(this.source.skip(2)).take("[^\\n]").remaining(),
+            new Trivia(this.source).end(),
             this.result
         ) : new InitialState(
             this.source.skip(1),
-            this.result.withToken(new ExplicitToken(TokenType.SLASH, "/", this.source.position()))
+            this.result.withToken(TokenType.SLASH, this.source, 1)
         );
     }
 
@@ -47,7 +45,7 @@ public final class SlashState implements LexingState {
      * @return {@code true} if the next character is also a slash, {@code false} otherwise
      */
     private boolean isComment() {
-        return this.source.hasNext(2) && this.source.peek(1).equals("/");
+        return this.source.hasNext(2) && this.source.peekChar(1) == '/';
     }
 
     /**
@@ -65,4 +63,12 @@ public final class SlashState implements LexingState {
     public LexingResult collectResult() {
         return this.result;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LexingState withResult(final LexingResult result) {
+        return new SlashState(this.source, result);
+    }
 }
@@ -2,19 +2,22 @@ package com.andreychh.lox.lexing.state;
 
 import com.andreychh.lox.error.Error;
 import com.andreychh.lox.lexing.LexingResult;
-import com.andreychh.lox.source.Fragment;
-import com.andreychh.lox.source.PatternSource;
+import com.andreychh.lox.source.CharClass;
 import com.andreychh.lox.source.Source;
-import com.andreychh.lox.token.ExplicitToken;
-import com.andreychh.lox.token.Token;
-import com.andreychh.lox.token.TokenType;
 
 /**
  * Represents a state that processes string literals, handling both valid strings and unterminated string errors.
+ * <p>
+ * Runs of plain characters are skipped in bulk, and the literal ends at the first quote that is not escaped. Only
+ * where a run stops at a backslash is the escape sequence it starts checked; an invalid one is reported and the
+ * backslash kept as a plain character.
  *
  * @apiNote Expects {@code source.take(1)} to return {@code '"'}
  */
 public final class StringState implements LexingState {
+    private static final CharClass PLAIN = new CharClass("\"\\").negated();
+    private static final Escapes ESCAPES = new Escapes();
+
     private final Source source;
     private final LexingResult result;
 
@@ -30,17 +33,36 @@ public final class StringState implements LexingState {
     }
 
     /**
-     * Consumes characters until closing quote or creates an error for unterminated strings.
+     * Consumes characters until the closing quote or creates an error for unterminated strings.
+     * <p>
+     * The lexeme, quotes included, is kept as it is, while the value of the literal is interned in the symbol table
+     * of the run.
      */
     @Override
     public LexingState next() {
-        Fragment taken = new PatternSource(this.source.skip(1)).take("[^\"]");
-        if (!taken.remaining().hasNext(1)) {
-            Error error = new Error("Unterminated string literal", this.source.position());
-            return new EOFState(taken.remaining(), this.result.withError(error));
+        int plain = 1 + this.source.span(1, PLAIN);
+        int close = plain;
+        LexingResult updated = this.result;
+        while (this.source.hasNext(close + 1) && this.source.peekChar(close) == '\\') {
+            int escape = ESCAPES.length(this.source, close);
+            if (escape == 0) {
+                Error error = new Error(
+                    "Invalid escape sequence in string literal",
+                    this.source.offset() + close,
+                    this.source.positions()
+                );
+                updated = updated.withError(error);
+                escape = 1;
+            }
+            close += escape;
+            close += this.source.span(close, PLAIN);
+        }
+        if (!this.source.hasNext(close + 1)) {
+            Error error = new Error("Unterminated string literal", this.source.offset(), this.source.positions());
+            return new EOFState(this.source.skip(close), updated.withError(error));
         }
-        Token token = new ExplicitToken(TokenType.STRING, "\"%s\"".formatted(taken.value()), this.source.position());
-        return new InitialState(taken.remaining().skip(1), this.result.withToken(token));
+        int length = close + 1;
+        return new InitialState(this.source.skip(length), updated.withString(this.source, length, close != plain));
     }
 
     /**
@@ -58,4 +80,12 @@ public final class StringState implements LexingState {
     public LexingResult collectResult() {
         return this.result;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LexingState withResult(final LexingResult result) {
+        return new StringState(this.source, result);
+    }
 }
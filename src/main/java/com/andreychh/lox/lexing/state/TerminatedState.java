@@ -36,4 +36,9 @@ public final class TerminatedState implements LexingState {
     public LexingResult collectResult() {
         return this.result;
     }
+
+    @Override
+    public LexingState withResult(final LexingResult result) {
+        return new TerminatedState(result);
+    }
 }
@@ -0,0 +1,52 @@
+package com.andreychh.lox.lexing.state;
+
+import com.andreychh.lox.source.CharClass;
+import com.andreychh.lox.source.Source;
+
+/**
+ * Represents the whitespace and line comments between two tokens, which the lexer skips without emitting anything.
+ * <p>
+ * Runs of whitespace are measured with {@link Source#span(int, CharClass)} and comments with
+ * {@link Source#find(int, char)}, alternating until a character that starts neither, so an indented block of comment
+ * lines is skipped in a single transition instead of one per run.
+ */
+final class Trivia {
+    private static final CharClass WHITESPACE = new CharClass(" \t\n\r");
+
+    private final Source source;
+
+    /**
+     * Creates the trivia starting at the current position of a source.
+     *
+     * @param source The source code positioned at whitespace or at a line comment
+     */
+    Trivia(final Source source) {
+        this.source = source;
+    }
+
+    /**
+     * Skips every whitespace character and line comment in a row.
+     *
+     * @return The source positioned at the first character that is neither, or at its end
+     */
+    Source end() {
+        int offset = this.source.span(0, WHITESPACE);
+        while (this.isComment(offset)) {
+            offset += 2 + this.source.find(offset + 2, '\n');
+            offset += this.source.span(offset, WHITESPACE);
+        }
+        return this.source.skip(offset);
+    }
+
+    /**
+     * Checks whether a line comment starts at the given offset.
+     *
+     * @param offset The offset from the current position
+     * @return {@code true} if the two characters at the offset are slashes, {@code false} otherwise
+     */
+    private boolean isComment(final int offset) {
+        return this.source.hasNext(offset + 2)
+            && this.source.peekChar(offset) == '/'
+            && this.source.peekChar(offset + 1) == '/';
+    }
+}
@@ -7,7 +7,7 @@ import com.andreychh.lox.parsing.rule.ParsingRule;
 import com.andreychh.lox.parsing.rule.PrimaryExpressionRule;
 import com.andreychh.lox.parsing.rule.UnaryOperatorRule;
 import com.andreychh.lox.token.TokenType;
-import com.andreychh.lox.token.stream.ListTokenStream;
+import com.andreychh.lox.token.stream.TokenStream;
 
 /**
  * Recursive descent parser for Lox expressions.
@@ -30,14 +30,14 @@ import com.andreychh.lox.token.stream.ListTokenStream;
  *}
  */
 public final class Parser {
-    private final ListTokenStream tokens;
+    private final TokenStream tokens;
 
     /**
      * Creates parser with token stream.
      *
      * @param tokens stream to parse
      */
-    public Parser(final ListTokenStream tokens) {
+    public Parser(final TokenStream tokens) {
         this.tokens = tokens;
     }
 
@@ -0,0 +1,134 @@
+package com.andreychh.lox.source;
+
+import java.util.function.IntPredicate;
+
+/**
+ * Represents a set of characters that can be tested for membership without a regular expression engine.
+ * <p>
+ * Membership of ASCII characters is answered by a 128-bit set held in two {@code long} words; characters beyond ASCII
+ * fall back to a predicate, which is only consulted for non-ASCII input.
+ * <p>
+ * {@snippet :
+ * CharClass digits = new CharClass('0', '9');
+ * CharClass word = digits.union(new CharClass('a', 'z')).union(new CharClass("_"));
+ * boolean matches = word.contains('x'); // true
+ * boolean other = word.negated().contains('x'); // false
+ *}
+ */
+public final class CharClass {
+    private static final int WORD = 64;
+    private static final int ASCII = 128;
+
+    private final long low;
+    private final long high;
+    private final IntPredicate beyond;
+
+    /**
+     * Constructs a character class from its ASCII bitset and non-ASCII predicate.
+     *
+     * @param low    the bits of characters {@code 0} to {@code 63}
+     * @param high   the bits of characters {@code 64} to {@code 127}
+     * @param beyond the membership test for characters beyond ASCII
+     */
+    private CharClass(final long low, final long high, final IntPredicate beyond) {
+        this.low = low;
+        this.high = high;
+        this.beyond = beyond;
+    }
+
+    /**
+     * Constructs a character class containing the inclusive range of characters.
+     *
+     * @param first the first character of the range
+     * @param last  the last character of the range
+     */
+    public CharClass(final char first, final char last) {
+        this(
+            CharClass.rangeBits(first, last, 0),
+            CharClass.rangeBits(first, last, WORD),
+            character -> character >= first && character <= last
+        );
+    }
+
+    /**
+     * Constructs a character class containing exactly the given characters.
+     *
+     * @param members the characters of the class
+     */
+    public CharClass(final String members) {
+        this(
+            CharClass.memberBits(members, 0),
+            CharClass.memberBits(members, WORD),
+            character -> members.indexOf(character) >= 0
+        );
+    }
+
+    /**
+     * Checks whether the character belongs to this class.
+     *
+     * @param character the character to test
+     * @return {@code true} if the character is a member, {@code false} otherwise
+     */
+    public boolean contains(final char character) {
+        if (character < WORD) {
+            return (this.low & 1L << character) != 0;
+        }
+        if (character < ASCII) {
+            return (this.high & 1L << character - WORD) != 0;
+        }
+        return this.beyond.test(character);
+    }
+
+    /**
+     * Returns a class containing the characters of this class and of another one.
+     *
+     * @param other the class to join with
+     * @return the union of both classes
+     */
+    public CharClass union(final CharClass other) {
+        return new CharClass(this.low | other.low, this.high | other.high, this.beyond.or(other.beyond));
+    }
+
+    /**
+     * Returns a class containing every character that is not a member of this class.
+     *
+     * @return the complement of this class
+     */
+    public CharClass negated() {
+        return new CharClass(~this.low, ~this.high, this.beyond.negate());
+    }
+
+    /**
+     * Computes the bits of the inclusive range that fall into the word starting at {@code base}.
+     *
+     * @param first the first character of the range
+     * @param last  the last character of the range
+     * @param base  the first character covered by the word
+     * @return the bits of the word
+     */
+    private static long rangeBits(final char first, final char last, final int base) {
+        long bits = 0;
+        for (int character = Math.max(first, base); character <= last && character < base + WORD; character++) {
+            bits |= 1L << character - base;
+        }
+        return bits;
+    }
+
+    /**
+     * Computes the bits of the given characters that fall into the word starting at {@code base}.
+     *
+     * @param members the characters of the class
+     * @param base    the first character covered by the word
+     * @return the bits of the word
+     */
+    private static long memberBits(final String members, final int base) {
+        long bits = 0;
+        for (int i = 0; i < members.length(); i++) {
+            char character = members.charAt(i);
+            if (character >= base && character < base + WORD) {
+                bits |= 1L << character - base;
+            }
+        }
+        return bits;
+    }
+}
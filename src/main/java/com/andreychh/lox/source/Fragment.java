@@ -3,15 +3,27 @@ package com.andreychh.lox.source;
 /**
  * Fragment represents a piece of text taken from a {@link Source}, along with the remaining {@link Source}.
  * <p>
+ * The text may be a {@link Slice} of the source text, so taking a fragment does not copy it; {@link #value()} copies
+ * it into a string when one is needed.
+ * <p>
  * {@snippet :
  * Source input = new TextSource("abc");
  * Fragment fragment = input.take(2);
+ * CharSequence text = fragment.text(); // "ab", not copied
  * String value = fragment.value(); // "ab"
  * Source rest = fragment.remaining();
  *}
  *
- * @param value     The extracted string fragment.
+ * @param text      The extracted characters.
  * @param remaining The Source after extraction.
  */
-public record Fragment(String value, Source remaining) {
+public record Fragment(CharSequence text, Source remaining) {
+    /**
+     * Returns the extracted characters as a string.
+     *
+     * @return The extracted string fragment.
+     */
+    public String value() {
+        return this.text.toString();
+    }
 }
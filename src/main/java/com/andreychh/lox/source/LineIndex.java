@@ -0,0 +1,80 @@
+package com.andreychh.lox.source;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.andreychh.lox.Position;
+
+/**
+ * Resolves character offsets of a text into line and column positions.
+ * <p>
+ * The offsets at which lines start are collected lazily, in a single pass over the text, on the first resolution.
+ * Every later resolution is a binary search over that table, so sources derived from one text should share a single
+ * index.
+ * <p>
+ * {@snippet :
+ * LineIndex index = new LineIndex("a\nbc");
+ * Position position = index.position(3); // Position(2, 2)
+ *}
+ */
+public final class LineIndex implements PositionResolver {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final CharSequence text;
+    private final AtomicReference<int[]> starts;
+
+    /**
+     * Constructs an index over the given text.
+     *
+     * @param text the text whose offsets will be resolved
+     */
+    public LineIndex(final CharSequence text) {
+        this.text = text;
+        this.starts = new AtomicReference<>(new int[0]);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Position position(final int offset) {
+        int[] lines = this.lineStarts();
+        int found = Arrays.binarySearch(lines, offset);
+        int line = found >= 0 ? found : -found - 2;
+        return new Position(line + 1, offset - lines[line] + 1);
+    }
+
+    /**
+     * Returns the table of line start offsets, building it on first access.
+     *
+     * @return ascending offsets at which lines start, the first being {@code 0}
+     */
+    private int[] lineStarts() {
+        int[] lines = this.starts.get();
+        if (lines.length == 0) {
+            lines = this.scan();
+            this.starts.set(lines);
+        }
+        return lines;
+    }
+
+    /**
+     * Collects the offsets following every line feed in the text.
+     *
+     * @return ascending offsets at which lines start, the first being {@code 0}
+     */
+    private int[] scan() {
+        int[] lines = new int[INITIAL_CAPACITY];
+        int count = 1;
+        for (int i = 0; i < this.text.length(); i++) {
+            if (this.text.charAt(i) == '\n') {
+                if (count == lines.length) {
+                    lines = Arrays.copyOf(lines, count * 2);
+                }
+                lines[count] = i + 1;
+                count++;
+            }
+        }
+        return Arrays.copyOf(lines, count);
+    }
+}
@@ -0,0 +1,121 @@
+package com.andreychh.lox.source;
+
+import java.nio.ByteBuffer;
+
+import com.andreychh.lox.Position;
+
+/**
+ * MappedSource is an implementation of {@link Source} that reads UTF-8 encoded bytes, typically a
+ * {@link java.nio.MappedByteBuffer} over a script file, decoding them on the fly.
+ * <p>
+ * Unlike reading the file into a byte array and decoding it into a {@link String}, no full-size copy of the script is
+ * ever held on the heap: the bytes stay in the mapping and only one block of decoded characters is cached at a time.
+ * Blocks of ASCII bytes, which is most of any Lox script, are lexed straight from the bytes without being decoded.
+ * <p>
+ * {@snippet :
+ * try (FileChannel channel = FileChannel.open(path)) {
+ *     Source input = new MappedSource(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+ *     LexingResult result = new LexingFSM(input).tokenize();
+ * }
+ *}
+ */
+public final class MappedSource implements Source {
+    private final Source origin;
+
+    /**
+     * Constructs a MappedSource over the given bytes.
+     *
+     * @param bytes The UTF-8 encoded script, read from index 0 up to its limit
+     */
+    public MappedSource(final ByteBuffer bytes) {
+        this.origin = new TextSource(new Utf8Text(bytes));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasNext(final int count) {
+        return this.origin.hasNext(count);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String peek(final int offset) {
+        return this.origin.peek(offset);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public char peekChar(final int offset) {
+        return this.origin.peekChar(offset);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int span(final int from, final CharClass members) {
+        return this.origin.span(from, members);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int find(final int from, final char target) {
+        return this.origin.find(from, target);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Fragment take(final int count) {
+        return this.origin.take(count);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Source skip(final int count) {
+        return this.origin.skip(count);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int offset() {
+        return this.origin.offset();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean durable() {
+        return this.origin.durable();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Position position() {
+        return this.origin.position();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public PositionResolver positions() {
+        return this.origin.positions();
+    }
+}
@@ -7,14 +7,15 @@ package com.andreychh.lox.source;
  * {@snippet :
  * Source src = new TextSource("abc123");
  * PatternSource ps = new PatternSource(src);
- * boolean matches = ps.matches(new String[]{"[a-z]", "[a-z]", "[a-z]"}); // true
- * Fragment fragment = ps.take("[a-z]"); // value="abc", remaining="123"
- * Source skipped = ps.skip("[0-9]"); // remaining="abc123"
+ * CharClass letters = new CharClass('a', 'z');
+ * boolean matches = ps.matches(new CharClass[]{letters, letters, letters}); // true
+ * Fragment fragment = ps.take(letters); // value="abc", remaining="123"
+ * Source skipped = ps.skip(new CharClass('0', '9')); // remaining="abc123"
  *}
  *
- * @apiNote Each {@code pattern} must be a regular expression that matches exactly one character. For example,
- * {@code "[a-z]"} is allowed, but {@code "ab"} or {@code "[a-z]+"} are not. The {@code patterns} array must contain
- * only such single-character regular expressions.
+ * @apiNote Each pattern is a {@link CharClass} that matches exactly one character, so scanning a run of characters is
+ * a plain loop with no regular expression engine involved. Runs are measured by
+ * {@link Source#span(int, CharClass)}, inside the source, rather than one {@link Source#peekChar(int)} call at a time.
  */
 public final class PatternSource {
     private final Source origin;
@@ -29,17 +30,17 @@ public final class PatternSource {
     }
 
     /**
-     * Checks if the next characters in the source match the given array of regular expression patterns.
+     * Checks if the next characters in the source match the given array of character classes.
      *
-     * @param patterns array of regular expression patterns that each match exactly one character
+     * @param patterns array of character classes that each match exactly one character
      * @return {@code true} if all patterns match the corresponding characters, {@code false} otherwise
      */
-    public boolean matches(final String[] patterns) {
+    public boolean matches(final CharClass[] patterns) {
         if (!this.origin.hasNext(patterns.length)) {
             return false;
         }
         for (int i = 0; i < patterns.length; i++) {
-            if (!this.origin.peek(i).matches(patterns[i])) {
+            if (!patterns[i].contains(this.origin.peekChar(i))) {
                 return false;
             }
         }
@@ -47,36 +48,32 @@ public final class PatternSource {
     }
 
     /**
-     * Takes a fragment from the source as long as the characters match the given regular expression pattern.
+     * Takes a fragment from the source as long as the characters match the given character class.
      *
-     * @param pattern the regular expression pattern that matches exactly one character
+     * @param pattern the character class that matches exactly one character
      * @return a Fragment containing the matched value and the remaining Source
      */
-    public Fragment take(final String pattern) {
+    public Fragment take(final CharClass pattern) {
         return this.origin.take(this.count(pattern));
     }
 
     /**
-     * Skips characters in the source as long as they match the given regular expression pattern.
+     * Skips characters in the source as long as they match the given character class.
      *
-     * @param pattern the regular expression pattern to match characters
+     * @param pattern the character class to match characters
      * @return the Source after skipping the matched characters
      */
-    public Source skip(final String pattern) {
+    public Source skip(final CharClass pattern) {
         return this.origin.skip(this.count(pattern));
     }
 
     /**
-     * Counts how many consecutive characters from the current position match the given regular expression pattern.
+     * Counts how many consecutive characters from the current position match the given character class.
      *
-     * @param pattern the regular expression pattern to match characters
+     * @param pattern the character class to match characters
      * @return the number of matching characters
      */
-    private int count(final String pattern) {
-        int count = 0;
-        while (this.origin.hasNext(count + 1) && this.origin.peek(count).matches(pattern)) {
-            count++;
-        }
-        return count;
+    public int count(final CharClass pattern) {
+        return this.origin.span(0, pattern);
     }
 }
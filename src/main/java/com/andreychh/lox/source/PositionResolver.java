@@ -0,0 +1,26 @@
+package com.andreychh.lox.source;
+
+import com.andreychh.lox.Position;
+
+/**
+ * Resolves character offsets of a source into line and column positions.
+ * <p>
+ * Tokens and errors keep the plain offset at which they start, and ask the resolver of their source for a
+ * {@link Position} only when one is printed, so lexing never computes line numbers for positions nobody reads.
+ * <p>
+ * {@snippet :
+ * Source source = new TextSource("a\nbc");
+ * PositionResolver positions = source.positions();
+ * Position position = positions.position(3); // Position(2, 2)
+ *}
+ */
+@FunctionalInterface
+public interface PositionResolver {
+    /**
+     * Resolves the given offset into a position.
+     *
+     * @param offset the offset from the start of the text, up to and including its length
+     * @return the 1-based line and column of the character at the offset
+     */
+    Position position(int offset);
+}
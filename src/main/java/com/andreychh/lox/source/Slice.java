@@ -0,0 +1,73 @@
+package com.andreychh.lox.source;
+
+import java.util.Objects;
+
+/**
+ * Represents a range of characters of a text as a {@link CharSequence}, without copying them.
+ * <p>
+ * A slice holds the text and two offsets, so taking one costs a small object whatever its length. A {@link String} is
+ * only built when {@link #toString()} is called.
+ * <p>
+ * {@snippet :
+ * CharSequence name = new Slice("var answer = 42;", 4, 10);
+ * char first = name.charAt(0); // 'a'
+ * String copy = name.toString(); // "answer"
+ *}
+ */
+public final class Slice implements CharSequence {
+    private final CharSequence text;
+    private final int start;
+    private final int end;
+
+    /**
+     * Constructs a slice of the given text.
+     *
+     * @param text  the text to slice
+     * @param start the offset of the first character of the slice
+     * @param end   the offset following the last character of the slice
+     */
+    public Slice(final CharSequence text, final int start, final int end) {
+        Objects.checkFromToIndex(start, end, text.length());
+        this.text = text;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int length() {
+        return this.end - this.start;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public char charAt(final int index) {
+        Objects.checkIndex(index, this.length());
+        return this.text.charAt(this.start + index);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return a slice of the same text, sharing its characters
+     */
+    @Override
+    public CharSequence subSequence(final int from, final int to) {
+        Objects.checkFromToIndex(from, to, this.length());
+        return new Slice(this.text, this.start + from, this.start + to);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return a copy of the characters of the slice
+     */
+    @Override
+    public String toString() {
+        return this.text.subSequence(this.start, this.end).toString();
+    }
+}
@@ -13,6 +13,7 @@ import com.andreychh.lox.Position;
  * Source input = new TextSource("hello world");
  * String firstChar = input.peek(0);  // "h"
  * String fifthChar = input.peek(4);  // "o"
+ * char secondChar = input.peekChar(1);  // 'e'
  *
  * // Fragment extraction
  * Fragment fragment = input.take(5);  // value="hello", remaining=" world"
@@ -40,6 +41,34 @@ public interface Source {
      */
     String peek(int offset);
 
+    /**
+     * Peeks at the character at the specified offset from the current position without allocating.
+     *
+     * @param offset The offset from the current position.
+     * @return The UTF-16 code unit at the given offset.
+     */
+    char peekChar(int offset);
+
+    /**
+     * Counts the consecutive characters, starting at the specified offset from the current position, that belong to
+     * the given class.
+     *
+     * @param from    The offset from the current position at which the run starts.
+     * @param members The class of characters forming the run.
+     * @return The length of the run, {@code 0} if the character at the offset does not belong to the class.
+     */
+    int span(int from, CharClass members);
+
+    /**
+     * Counts the characters, starting at the specified offset from the current position, up to the next occurrence of
+     * the given character.
+     *
+     * @param from   The offset from the current position at which the search starts.
+     * @param target The character to search for.
+     * @return The number of characters before the target, or the number of remaining characters if there is none.
+     */
+    int find(int from, char target);
+
     /**
      * Takes a fragment of the specified length from the source.
      *
@@ -56,10 +85,37 @@ public interface Source {
      */
     Source skip(int count);
 
+    /**
+     * Returns the number of characters preceding the current position.
+     *
+     * @return The offset of the current position from the start of the text.
+     */
+    int offset();
+
+    /**
+     * Checks whether the text stays readable once sources derived from this one have moved past it.
+     * <p>
+     * A durable source can be kept to read a fragment again later, which lets tokens refer to the text instead of
+     * copying their lexemes.
+     *
+     * @return {@code true} if earlier text can be read again, {@code false} if it is discarded as it is consumed.
+     */
+    boolean durable();
+
     /**
      * Returns the current position in the source.
      *
      * @return The Position object representing the current line and column.
      */
     Position position();
+
+    /**
+     * Returns the resolver turning offsets of this source into positions.
+     * <p>
+     * Keeping {@link #offset()} and the resolver instead of calling {@link #position()} defers the line lookup until a
+     * position is actually needed.
+     *
+     * @return The resolver shared by all sources derived from the same text.
+     */
+    PositionResolver positions();
 }
@@ -0,0 +1,175 @@
+package com.andreychh.lox.source;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+import com.andreychh.lox.Position;
+
+/**
+ * Represents the bounded window of a character stream that {@link StreamingSource} instances read from.
+ * <p>
+ * Characters are read from the underlying reader in chunks, only when an offset beyond the window is requested. Before
+ * each read, the characters preceding the most advanced source created so far are discarded, so the window holds
+ * little more than the lexeme being scanned. Line starts are recorded as characters arrive, which keeps every offset
+ * resolvable into a {@link Position} after its characters are gone.
+ * <p>
+ * The window is the one mutable object behind the immutable {@link StreamingSource} values: a stream can be read only
+ * once, so its cursor, the discard mark and the line starts read so far are plain fields updated in place. The sources
+ * sharing a window never see it change, because every offset they read is either already held or read on demand.
+ *
+ * @implNote Instances are not thread-safe, as is the reader they wrap.
+ */
+@SuppressWarnings("checkstyle:regexp")
+final class StreamWindow implements PositionResolver {
+    private static final int CAPACITY = 16;
+
+    private final Reader reader;
+    private final char[] chunk;
+    private final StringBuilder buffer;
+    private int base;
+    private int mark;
+    private boolean exhausted;
+    private int[] lines;
+    private int count;
+
+    /**
+     * Constructs a window over the given reader.
+     *
+     * @param reader the reader supplying characters
+     * @param chunk  the number of characters read at a time
+     */
+    StreamWindow(final Reader reader, final int chunk) {
+        this.reader = reader;
+        this.chunk = new char[chunk];
+        this.buffer = new StringBuilder();
+        this.base = 0;
+        this.mark = 0;
+        this.exhausted = false;
+        this.lines = new int[CAPACITY];
+        this.count = 1;
+    }
+
+    /**
+     * Checks whether the stream has a character at the given offset, reading up to it if needed.
+     *
+     * @param offset the absolute offset of a character
+     * @return {@code true} if the character exists, {@code false} if the stream ends before it
+     */
+    boolean available(final int offset) {
+        while (offset >= this.end() && !this.exhausted) {
+            this.fill();
+        }
+        return offset < this.end();
+    }
+
+    /**
+     * Returns the character at the given offset.
+     *
+     * @param offset the absolute offset of a character that has not been discarded
+     * @return the character
+     */
+    char charAt(final int offset) {
+        this.require(offset, offset + 1);
+        return this.buffer.charAt(offset - this.base);
+    }
+
+    /**
+     * Returns the characters between the given offsets.
+     *
+     * @param from the absolute offset of the first character, inclusive
+     * @param to   the absolute offset of the last character, exclusive
+     * @return the characters as a string
+     */
+    String slice(final int from, final int to) {
+        this.require(from, to);
+        return this.buffer.substring(from - this.base, to - this.base);
+    }
+
+    /**
+     * Records that a source at the given offset has been created, allowing characters before it to be discarded.
+     *
+     * @param offset the absolute offset of the new source
+     */
+    void advance(final int offset) {
+        this.mark = Math.max(this.mark, offset);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Position position(final int offset) {
+        this.available(offset - 1);
+        int found = Arrays.binarySearch(this.lines, 0, this.count, offset);
+        int line = found >= 0 ? found : -found - 2;
+        return new Position(line + 1, offset - this.lines[line] + 1);
+    }
+
+    /**
+     * Ensures the characters between the given offsets are held by the window.
+     *
+     * @param from the absolute offset of the first character, inclusive
+     * @param to   the absolute offset of the last character, exclusive
+     */
+    private void require(final int from, final int to) {
+        if (from < this.base) {
+            throw new IllegalStateException(
+                "Offset %d has already been discarded from the stream window".formatted(from)
+            );
+        }
+        if (to > from && !this.available(to - 1)) {
+            throw new IndexOutOfBoundsException("Offset %d is beyond the end of the stream".formatted(to - 1));
+        }
+    }
+
+    /**
+     * Returns the absolute offset following the last character read.
+     *
+     * @return the end of the window
+     */
+    private int end() {
+        return this.base + this.buffer.length();
+    }
+
+    /**
+     * Discards the characters no source can read anymore and reads the next chunk.
+     */
+    private void fill() {
+        int discarded = Math.min(this.mark, this.end()) - this.base;
+        if (discarded > 0) {
+            this.buffer.delete(0, discarded);
+            this.base += discarded;
+        }
+        try {
+            int read = this.reader.read(this.chunk);
+            if (read < 0) {
+                this.exhausted = true;
+            } else {
+                this.record(this.end(), read);
+                this.buffer.append(this.chunk, 0, read);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read from the stream", e);
+        }
+    }
+
+    /**
+     * Records the line starts within the chunk that has just been read.
+     *
+     * @param start the absolute offset of the first character of the chunk
+     * @param read  the number of characters in the chunk
+     */
+    private void record(final int start, final int read) {
+        for (int i = 0; i < read; i++) {
+            if (this.chunk[i] == '\n') {
+                if (this.count == this.lines.length) {
+                    this.lines = Arrays.copyOf(this.lines, this.lines.length * 2);
+                }
+                this.lines[this.count] = start + i + 1;
+                this.count++;
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.andreychh.lox.source;
+
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+import com.andreychh.lox.Position;
+
+/**
+ * StreamingSource is an implementation of {@link Source} that reads from a {@link Reader} or a
+ * {@link ReadableByteChannel} through a bounded window, so input that does not fit in memory or that arrives
+ * incrementally can be lexed.
+ * <p>
+ * Creating a source through {@link #skip(int)} or {@link #take(int)} tells the window that characters before it are no
+ * longer needed, and they are discarded before the next read. Memory use is therefore bounded by the longest lexeme
+ * plus one {@code int} per line, which keeps positions correct for any offset.
+ * <p>
+ * {@snippet :
+ * Source input = new StreamingSource(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+ * LexingResult result = new LexingFSM(input).tokenize();
+ *}
+ *
+ * @apiNote Sources derived from one stream are meant to be used moving forward, as {@link com.andreychh.lox.lexing
+ * .LexingFSM} does: reading characters before the most advanced derived source fails once the window has moved past
+ * them. Positions remain available for every offset.
+ */
+public final class StreamingSource implements Source {
+    private static final int CHUNK = 8192;
+
+    private final StreamWindow window;
+    private final int offset;
+
+    /**
+     * Constructs a StreamingSource with the given window and offset.
+     *
+     * @param window The window shared by all sources over the stream
+     * @param offset The absolute offset of this source
+     */
+    private StreamingSource(final StreamWindow window, final int offset) {
+        this.window = window;
+        this.offset = offset;
+    }
+
+    /**
+     * Constructs a StreamingSource reading the given number of characters at a time.
+     *
+     * @param reader The reader supplying characters
+     * @param chunk  The number of characters read at a time
+     */
+    public StreamingSource(final Reader reader, final int chunk) {
+        this(new StreamWindow(reader, chunk), 0);
+    }
+
+    /**
+     * Constructs a StreamingSource over the given reader.
+     *
+     * @param reader The reader supplying characters
+     */
+    public StreamingSource(final Reader reader) {
+        this(reader, CHUNK);
+    }
+
+    /**
+     * Constructs a StreamingSource decoding the given channel as UTF-8.
+     *
+     * @param channel The channel supplying UTF-8 encoded bytes
+     */
+    public StreamingSource(final ReadableByteChannel channel) {
+        this(Channels.newReader(channel, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasNext(final int count) {
+        return count <= 0 || this.window.available(this.offset + count - 1);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String peek(final int offset) {
+        return String.valueOf(this.window.charAt(this.offset + offset));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public char peekChar(final int offset) {
+        return this.window.charAt(this.offset + offset);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int span(final int from, final CharClass members) {
+        int start = this.offset + from;
+        int current = start;
+        while (this.window.available(current) && members.contains(this.window.charAt(current))) {
+            current++;
+        }
+        return current - start;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int find(final int from, final char target) {
+        int start = this.offset + from;
+        int current = start;
+        while (this.window.available(current) && this.window.charAt(current) != target) {
+            current++;
+        }
+        return current - start;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @implNote The characters are copied, since the window may discard them once a later source is created.
+     */
+    @Override
+    public Fragment take(final int count) {
+        return new Fragment(this.window.slice(this.offset, this.offset + count), this.skip(count));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Source skip(final int count) {
+        this.window.advance(this.offset + count);
+        return new StreamingSource(this.window, this.offset + count);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int offset() {
+        return this.offset;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@code false}, since the window discards characters once every derived source has moved past them
+     */
+    @Override
+    public boolean durable() {
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Position position() {
+        return this.window.position(this.offset);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public PositionResolver positions() {
+        return this.window;
+    }
+}
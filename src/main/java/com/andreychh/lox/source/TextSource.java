@@ -3,29 +3,39 @@ package com.andreychh.lox.source;
 import com.andreychh.lox.Position;
 
 /**
- * TextSource is an implementation of {@link Source} that reads from a {@link String}.
+ * TextSource is an implementation of {@link Source} that reads from a {@link CharSequence}, usually a {@link String}.
+ * <p>
+ * All sources derived from one text through {@link #skip(int)} and {@link #take(int)} share a single {@link LineIndex},
+ * so resolving a position costs a binary search instead of a rescan from the start of the text.
  * <p>
  * {@snippet :
  * Source input = new TextSource("example");
  * boolean hasTwo = input.hasNext(2); // true
  * String secondChar = input.peek(1); // "x"
- * Fragment firstThree = input.take(3); // value="exa", remaining="mple"
+ * char thirdChar = input.peekChar(2); // 'a'
+ * Fragment firstThree = input.take(3); // text="exa", remaining="mple"
  * Source afterTwo = input.skip(2); // remaining="ample"
  *}
  */
 public final class TextSource implements Source {
-    private final String text;
+    private final CharSequence text;
     private final int offset;
+    private final int end;
+    private final LineIndex lines;
 
     /**
-     * Constructs a TextSource with the given text and offset.
+     * Constructs a TextSource with the given text, bounds and line index.
      *
      * @param text   The source text
      * @param offset The starting offset
+     * @param end    The offset at which the source ends
+     * @param lines  The line index shared by all sources over the text
      */
-    private TextSource(final String text, final int offset) {
+    private TextSource(final CharSequence text, final int offset, final int end, final LineIndex lines) {
         this.text = text;
         this.offset = offset;
+        this.end = end;
+        this.lines = lines;
     }
 
     /**
@@ -33,8 +43,28 @@ public final class TextSource implements Source {
      *
      * @param text The source text
      */
-    public TextSource(final String text) {
-        this(text, 0);
+    public TextSource(final CharSequence text) {
+        this(text, 0, text.length(), new LineIndex(text));
+    }
+
+    /**
+     * Returns a source over the characters of the text between the given offsets.
+     * <p>
+     * Positions are still resolved against the whole text, through the line index shared with this source, so a
+     * region can be lexed on its own and yield the same tokens as the corresponding part of the whole text. A region
+     * of a {@link Utf8Text} reads through a {@link Utf8Text#view() view} of it, so regions lexed side by side do not
+     * evict each other's decoded block.
+     *
+     * @param start The offset of the first character of the region
+     * @param end   The offset following the last character of the region
+     * @return A source reading the region
+     */
+    public TextSource region(final int start, final int end) {
+        CharSequence part = this.text;
+        if (part instanceof Utf8Text utf8) {
+            part = utf8.view();
+        }
+        return new TextSource(part, start, end, this.lines);
     }
 
     /**
@@ -42,7 +72,7 @@ public final class TextSource implements Source {
      */
     @Override
     public boolean hasNext(final int count) {
-        return this.offset + count <= this.text.length();
+        return this.offset + count <= this.end;
     }
 
     /**
@@ -50,18 +80,64 @@ public final class TextSource implements Source {
      */
     @Override
     public String peek(final int offset) {
-        return this.text.substring(this.offset + offset, this.offset + offset + 1);
+        return String.valueOf(this.text.charAt(this.offset + offset));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public char peekChar(final int offset) {
+        return this.text.charAt(this.offset + offset);
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
+    public int span(final int from, final CharClass members) {
+        int start = this.offset + from;
+        if (this.text instanceof Utf8Text utf8) {
+            return utf8.span(start, this.end, members) - start;
+        }
+        int current = start;
+        while (current < this.end && members.contains(this.text.charAt(current))) {
+            current++;
+        }
+        return current - start;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @implNote For a {@link String} text the search is delegated to {@link String#indexOf(int, int, int)}, which the
+     * JVM compiles into a vectorized scan. A {@link Utf8Text} searches its bytes eight at a time.
+     */
+    @Override
+    public int find(final int from, final char target) {
+        int start = this.offset + from;
+        if (this.text instanceof String string) {
+            int found = string.indexOf(target, start, this.end);
+            return (found < 0 ? this.end : found) - start;
+        }
+        if (this.text instanceof Utf8Text utf8) {
+            return utf8.find(start, this.end, target) - start;
+        }
+        int current = start;
+        while (current < this.end && this.text.charAt(current) != target) {
+            current++;
+        }
+        return current - start;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @implNote The fragment holds a {@link Slice} of the text, so no characters are copied.
+     */
+    @Override
     public Fragment take(final int count) {
-        return new Fragment(
-                this.text.substring(this.offset, this.offset + count),
-                this.skip(count)
-        );
+        return new Fragment(new Slice(this.text, this.offset, this.offset + count), this.skip(count));
     }
 
     /**
@@ -69,7 +145,23 @@ public final class TextSource implements Source {
      */
     @Override
     public Source skip(final int count) {
-        return new TextSource(this.text, this.offset + count);
+        return new TextSource(this.text, this.offset + count, this.end, this.lines);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int offset() {
+        return this.offset;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean durable() {
+        return true;
     }
 
     /**
@@ -77,16 +169,14 @@ public final class TextSource implements Source {
      */
     @Override
     public Position position() {
-        int line = 1;
-        int column = 1;
-        for (int i = 0; i < this.offset; i++) {
-            if (this.text.charAt(i) == '\n') {
-                line++;
-                column = 1;
-            } else {
-                column++;
-            }
-        }
-        return new Position(line, column);
+        return this.lines.position(this.offset);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public PositionResolver positions() {
+        return this.lines;
     }
 }
@@ -0,0 +1,384 @@
+package com.andreychh.lox.source;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Represents UTF-8 encoded bytes as a sequence of UTF-16 characters that is decoded on the fly.
+ * <p>
+ * The bytes are split into blocks of about {@code block} characters. The block boundaries and the total length are
+ * found lazily, in one pass over the bytes. All of Lox's syntax is ASCII, and an ASCII byte is the character it
+ * encodes, so the pass checks eight bytes at a time for a set high bit and skips ASCII blocks without decoding them.
+ * Only blocks holding other bytes, such as non-ASCII string literals or identifiers, are decoded, into a single
+ * reusable block buffer. Later accesses read ASCII blocks straight from the bytes and decode only the other block they
+ * fall into. If the whole content is ASCII, characters are read from the bytes without looking up a block at all.
+ * <p>
+ * Each text caches the block it decoded most recently in a plain field, so sequential access decodes each block once.
+ * Readers working on different parts of the content, such as the segments of a parallel run, take a {@link #view()}
+ * each: views share the block boundaries but keep their own block, which is dropped with the view. Malformed input is
+ * replaced with {@code U+FFFD}.
+ * <p>
+ * {@snippet :
+ * CharSequence text = new Utf8Text(ByteBuffer.wrap(Files.readAllBytes(path)));
+ * LexingResult result = new ParallelLexingFSM(text).tokenize();
+ *}
+ *
+ * @implNote The bytes are read from index {@code 0} up to the buffer limit with absolute operations, so the buffer
+ * position is never changed and instances may be read from several threads. A cached block is immutable, so a thread
+ * reading the field while another replaces it sees either block whole; it only decodes again if it sees the other one.
+ */
+@SuppressWarnings("checkstyle:regexp")
+public final class Utf8Text implements CharSequence {
+    private static final int BLOCK = 8192;
+    private static final int CAPACITY = 16;
+    private static final long HIGH_BITS = 0x8080_8080_8080_8080L;
+    private static final long LOW_BITS = 0x0101_0101_0101_0101L;
+
+    private final ByteBuffer bytes;
+    private final int block;
+    private final AtomicReference<Layout> layout;
+    private Block cache;
+
+    /**
+     * Constructs a text over the given bytes and block boundaries.
+     *
+     * @param bytes  the UTF-8 encoded content
+     * @param block  the number of characters per block, at least {@code 2}
+     * @param layout the block boundaries, shared by every view of the content
+     */
+    private Utf8Text(final ByteBuffer bytes, final int block, final AtomicReference<Layout> layout) {
+        this.bytes = bytes;
+        this.block = block;
+        this.layout = layout;
+        this.cache = new Block(0, 0, 0, new char[0]);
+    }
+
+    /**
+     * Constructs a text over the given bytes, decoded in blocks of the given size.
+     *
+     * @param bytes the UTF-8 encoded content
+     * @param block the number of characters per block, at least {@code 2}
+     */
+    public Utf8Text(final ByteBuffer bytes, final int block) {
+        this(bytes, block, new AtomicReference<>(new Layout(new int[0], new int[0], new boolean[0], false)));
+    }
+
+    /**
+     * Constructs a text over the given bytes.
+     *
+     * @param bytes the UTF-8 encoded content
+     */
+    public Utf8Text(final ByteBuffer bytes) {
+        this(bytes, BLOCK);
+    }
+
+    /**
+     * Returns a text over the same content with a block cache of its own.
+     * <p>
+     * The block boundaries are shared, so they are still found only once for all views.
+     *
+     * @return a view of this text
+     */
+    public Utf8Text view() {
+        return new Utf8Text(this.bytes, this.block, this.layout);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int length() {
+        int[] chars = this.layout().chars();
+        return chars[chars.length - 1];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public char charAt(final int index) {
+        Layout blocks = this.layout();
+        if (blocks.ascii()) {
+            return (char) this.bytes.get(index);
+        }
+        Block cached = this.cache;
+        if (!cached.covers(index)) {
+            cached = this.decode(blocks, index);
+            this.cache = cached;
+        }
+        return cached.charAt(index, this.bytes);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CharSequence subSequence(final int start, final int end) {
+        if (this.layout().ascii()) {
+            byte[] part = new byte[end - start];
+            this.bytes.get(start, part);
+            return new String(part, StandardCharsets.ISO_8859_1);
+        }
+        StringBuilder builder = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            builder.append(this.charAt(i));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return this.subSequence(0, this.length()).toString();
+    }
+
+    /**
+     * Returns the index of the first occurrence of a character between the given indexes.
+     * <p>
+     * If the whole content and the character are ASCII, the bytes are compared eight at a time: each word is XORed
+     * with the character repeated in every byte, and a byte of the result is zero exactly where the character is. In
+     * other content the characters are compared one by one.
+     *
+     * @param from   the index of the first character to check
+     * @param to     the index following the last character to check
+     * @param target the character to find
+     * @return the index of the character, or {@code to} if none of the characters is the one searched for
+     */
+    int find(final int from, final int to, final char target) {
+        if (this.layout().ascii() && target <= Byte.MAX_VALUE) {
+            return this.indexOf(from, to, (byte) target);
+        }
+        int current = from;
+        while (current < to && this.charAt(current) != target) {
+            current++;
+        }
+        return current;
+    }
+
+    /**
+     * Returns the number of characters belonging to a class from the given index on.
+     * <p>
+     * ASCII content is tested straight from the bytes, without looking up the layout for every character.
+     *
+     * @param from    the index of the first character to check
+     * @param to      the index following the last character to check
+     * @param members the characters to count
+     * @return the index of the first character that does not belong to the class, or {@code to}
+     */
+    int span(final int from, final int to, final CharClass members) {
+        int current = from;
+        if (this.layout().ascii()) {
+            while (current < to && members.contains((char) this.bytes.get(current))) {
+                current++;
+            }
+        } else {
+            while (current < to && members.contains(this.charAt(current))) {
+                current++;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Decodes the block containing the character at the given index, unless it is ASCII.
+     *
+     * @param blocks the layout of the blocks
+     * @param index  the index of a character
+     * @return the block
+     */
+    private Block decode(final Layout blocks, final int index) {
+        int found = Arrays.binarySearch(blocks.chars(), index);
+        int number = found >= 0 ? found : -found - 2;
+        if (number < 0 || number >= blocks.chars().length - 1) {
+            throw new IndexOutOfBoundsException(
+                "Index %d out of bounds for length %d".formatted(index, this.length())
+            );
+        }
+        int start = blocks.chars()[number];
+        int length = blocks.chars()[number + 1] - start;
+        int from = blocks.bytes()[number];
+        if (blocks.plain()[number]) {
+            return new Block(start, length, from, new char[0]);
+        }
+        char[] chars = new char[length];
+        ByteBuffer input = this.bytes.slice(from, blocks.bytes()[number + 1] - from);
+        Utf8Text.decoder().decode(input, CharBuffer.wrap(chars), true);
+        return new Block(start, length, from, chars);
+    }
+
+    /**
+     * Returns the block boundaries, finding them on first access.
+     *
+     * @return the layout of the blocks
+     */
+    private Layout layout() {
+        Layout blocks = this.layout.get();
+        if (blocks.chars().length == 0) {
+            blocks = this.scan();
+            this.layout.set(blocks);
+        }
+        return blocks;
+    }
+
+    /**
+     * Passes over the content once, recording where each block starts and which blocks are ASCII.
+     * <p>
+     * ASCII blocks are skipped; the others are decoded into a reusable buffer, allocated on the first of them, to count
+     * their characters.
+     *
+     * @return the layout of the blocks, ending with the total number of characters and bytes
+     */
+    private Layout scan() {
+        CharsetDecoder decoder = Utf8Text.decoder();
+        ByteBuffer input = this.bytes.slice(0, this.bytes.limit());
+        CharBuffer output = CharBuffer.allocate(0);
+        int[] chars = new int[CAPACITY];
+        int[] bytes = new int[CAPACITY];
+        boolean[] plain = new boolean[CAPACITY];
+        boolean ascii = true;
+        int blocks = 0;
+        while (input.hasRemaining()) {
+            int end = Math.min(input.position() + this.block, input.limit());
+            int count = end - input.position();
+            boolean skipped = this.asciiUntil(input.position(), end) == end;
+            if (skipped) {
+                input.position(end);
+            } else {
+                if (output.capacity() == 0) {
+                    output = CharBuffer.allocate(this.block);
+                }
+                output.clear();
+                decoder.decode(input, output, true);
+                count = output.position();
+            }
+            if (blocks + 1 == chars.length) {
+                chars = Arrays.copyOf(chars, chars.length * 2);
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+                plain = Arrays.copyOf(plain, plain.length * 2);
+            }
+            plain[blocks] = skipped;
+            ascii = ascii && skipped;
+            blocks++;
+            chars[blocks] = chars[blocks - 1] + count;
+            bytes[blocks] = input.position();
+        }
+        return new Layout(Arrays.copyOf(chars, blocks + 1), Arrays.copyOf(bytes, blocks + 1), plain, ascii);
+    }
+
+    /**
+     * Finds the first byte with its high bit set, checking eight bytes at a time.
+     *
+     * @param from the index of the first byte to check
+     * @param to   the index following the last byte to check
+     * @return the index of the first non-ASCII byte, or {@code to} if all of them are ASCII
+     */
+    private int asciiUntil(final int from, final int to) {
+        int offset = from;
+        while (offset + Long.BYTES <= to && (this.bytes.getLong(offset) & HIGH_BITS) == 0) {
+            offset += Long.BYTES;
+        }
+        while (offset < to && this.bytes.get(offset) >= 0) {
+            offset++;
+        }
+        return offset;
+    }
+
+    /**
+     * Finds the first occurrence of an ASCII byte, checking eight bytes at a time.
+     * <p>
+     * A word XORed with the repeated byte has a zero byte where the byte occurs. Adding {@code 0x7F} to the low seven
+     * bits of each byte carries into its high bit unless they are all zero, so after OR-ing the word back in only the
+     * high bits of the zero bytes stay clear, with no borrow between bytes to cause a false match.
+     *
+     * @param from   the index of the first byte to check
+     * @param to     the index following the last byte to check
+     * @param target the byte to find, below {@code 0x80}
+     * @return the index of the byte, or {@code to} if it does not occur
+     */
+    private int indexOf(final int from, final int to, final byte target) {
+        long pattern = LOW_BITS * target;
+        int offset = from;
+        while (offset + Long.BYTES <= to) {
+            long word = this.bytes.getLong(offset) ^ pattern;
+            long zeros = ~((word & ~HIGH_BITS) + ~HIGH_BITS | word | ~HIGH_BITS);
+            if (zeros != 0) {
+                int bit;
+                if (this.bytes.order() == ByteOrder.BIG_ENDIAN) {
+                    bit = Long.numberOfLeadingZeros(zeros);
+                } else {
+                    bit = Long.numberOfTrailingZeros(zeros);
+                }
+                return offset + bit / Byte.SIZE;
+            }
+            offset += Long.BYTES;
+        }
+        while (offset < to && this.bytes.get(offset) != target) {
+            offset++;
+        }
+        return offset;
+    }
+
+    /**
+     * Creates a UTF-8 decoder that replaces malformed input.
+     *
+     * @return a fresh decoder
+     */
+    private static CharsetDecoder decoder() {
+        return StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    /**
+     * Represents the boundaries of the blocks.
+     *
+     * @param chars ascending character offsets at which blocks start, followed by the total number of characters
+     * @param bytes byte offsets at which the same blocks start, followed by the total number of bytes
+     * @param plain whether each block is ASCII, so that its characters are its bytes
+     * @param ascii whether the whole content is ASCII
+     */
+    private record Layout(int[] chars, int[] bytes, boolean[] plain, boolean ascii) {
+    }
+
+    /**
+     * Represents a block ready to be read.
+     *
+     * @param start  the offset of the first character of the block
+     * @param length the number of characters in the block
+     * @param from   the offset of the first byte of the block
+     * @param chars  the decoded characters, or none if the block is ASCII and read from the bytes
+     */
+    private record Block(int start, int length, int from, char[] chars) {
+        /**
+         * Checks whether the character at the given index belongs to this block.
+         *
+         * @param index the index of a character
+         * @return {@code true} if this block holds the character, {@code false} otherwise
+         */
+        boolean covers(final int index) {
+            return index >= this.start && index - this.start < this.length;
+        }
+
+        /**
+         * Returns the character at the given index.
+         *
+         * @param index the index of a character covered by this block
+         * @param bytes the content the block was cut from
+         * @return the character
+         */
+        char charAt(final int index, final ByteBuffer bytes) {
+            if (this.chars.length == 0) {
+                return (char) bytes.get(this.from + index - this.start);
+            }
+            return this.chars[index - this.start];
+        }
+    }
+}
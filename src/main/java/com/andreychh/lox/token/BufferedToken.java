@@ -0,0 +1,129 @@
+package com.andreychh.lox.token;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import com.andreychh.lox.Position;
+
+/**
+ * Represents a token stored in a {@link TokenBuffer}, as a flyweight view of one of its rows.
+ * <p>
+ * The view holds nothing but the buffer and the row index. The lexeme and position are read from the source text on
+ * every call, except for the lexeme of an identifier, which is its canonical name from the symbol table. The symbol of
+ * a string literal names its decoded value, which {@link #string()} returns, so its lexeme is read from the text too.
+ * {@link #text()} returns a slice of the source text, so only {@link #lexeme()} copies characters.
+ */
+final class BufferedToken implements Token {
+    private final TokenBuffer buffer;
+    private final int index;
+
+    /**
+     * Constructs a view of the given row.
+     *
+     * @param buffer the buffer holding the token
+     * @param index  the index of the token in the buffer
+     */
+    BufferedToken(final TokenBuffer buffer, final int index) {
+        this.buffer = buffer;
+        this.index = index;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasAnyType(final TokenType[] expected) {
+        return Arrays.asList(expected).contains(this.type());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String lexeme() {
+        return this.buffer.text(this.index).toString();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CharSequence text() {
+        return this.buffer.text(this.index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TokenType type() {
+        return this.buffer.type(this.index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Position position() {
+        return this.buffer.position(this.index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int offset() {
+        return this.buffer.offset(this.index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int symbol() {
+        return this.buffer.symbol(this.index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double number() {
+        return this.buffer.number(this.index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String string() {
+        return this.buffer.string(this.index);
+    }
+
+    /**
+     * Formats the token exactly as {@link ExplicitToken} does, so printed tokens do not depend on how they are stored.
+     *
+     * @return the type, lexeme and position of the token
+     */
+    @Override
+    public String toString() {
+        return "ExplicitToken{type=%s, lexeme='%s', position=%s}".formatted(
+            this.type(),
+            this.lexeme(),
+            this.position()
+        );
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        return o instanceof Token that
+            && this.type() == that.type()
+            && CharSequence.compare(this.text(), that.text()) == 0
+            && Objects.equals(this.position(), that.position());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.type(), this.lexeme(), this.position());
+    }
+}
@@ -4,6 +4,7 @@ import java.util.Arrays;
 import java.util.Objects;
 
 import com.andreychh.lox.Position;
+import com.andreychh.lox.source.PositionResolver;
 
 /**
  * Represents a token with explicitly defined type, lexeme, and position.
@@ -20,19 +21,60 @@ import com.andreychh.lox.Position;
 public final class ExplicitToken implements Token {
     private final TokenType type;
     private final String lexeme;
-    private final Position position;
+    private final int offset;
+    private final PositionResolver positions;
+    private final int symbol;
+    private final double number;
 
     /**
-     * Constructs a new {@code ExplicitToken} with the specified type, lexeme, and position.
+     * Constructs a new {@code ExplicitToken} whose position is resolved from its source offset on demand.
+     *
+     * @param type      the type of the token
+     * @param lexeme    the textual representation of the token in the source code
+     * @param offset    the offset of the first character of the token in the source code
+     * @param positions the resolver turning source offsets into positions
+     * @param symbol    the id of the lexeme in the symbol table of the lexing run, or {@link SymbolTable#NONE}
+     * @param number    the value of a numeric literal, or {@link Double#NaN} to parse it from the lexeme on demand
+     */
+    public ExplicitToken(
+        final TokenType type,
+        final String lexeme,
+        final int offset,
+        final PositionResolver positions,
+        final int symbol,
+        final double number
+    ) {
+        this.type = type;
+        this.lexeme = lexeme;
+        this.offset = offset;
+        this.positions = positions;
+        this.symbol = symbol;
+        this.number = number;
+    }
+
+    /**
+     * Constructs a new {@code ExplicitToken} with the specified type, lexeme, position, and symbol id.
+     * <p>
+     * The value of a numeric literal is not decoded, and is parsed from the lexeme whenever it is asked for.
+     *
+     * @param type     the type of the token
+     * @param lexeme   the textual representation of the token in the source code
+     * @param position the position of the token in the source code
+     * @param symbol   the id of the lexeme in the symbol table of the lexing run, or {@link SymbolTable#NONE}
+     */
+    public ExplicitToken(final TokenType type, final String lexeme, final Position position, final int symbol) {
+        this(type, lexeme, 0, offset -> position, symbol, Double.NaN);
+    }
+
+    /**
+     * Constructs a new {@code ExplicitToken} with the specified type, lexeme, and position, carrying no symbol.
      *
      * @param type     the type of the token
      * @param lexeme   the textual representation of the token in the source code
      * @param position the position of the token in the source code
      */
     public ExplicitToken(final TokenType type, final String lexeme, final Position position) {
-        this.type = type;
-        this.lexeme = lexeme;
-        this.position = position;
+        this(type, lexeme, position, SymbolTable.NONE);
     }
 
     /**
@@ -43,6 +85,73 @@ public final class ExplicitToken implements Token {
         return this.lexeme;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CharSequence text() {
+        return this.lexeme;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TokenType type() {
+        return this.type;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Position position() {
+        return this.positions.position(this.offset);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int offset() {
+        return this.offset;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int symbol() {
+        return this.symbol;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double number() {
+        if (this.type != TokenType.NUMBER) {
+            throw new IllegalStateException("Token %s is not a numeric literal".formatted(this.type));
+        }
+        if (Double.isNaN(this.number)) {
+            return Double.parseDouble(this.lexeme);
+        }
+        return this.number;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The value is decoded from the lexeme whenever it is asked for.
+     */
+    @Override
+    public String string() {
+        if (this.type != TokenType.STRING) {
+            throw new IllegalStateException("Token %s is not a string literal".formatted(this.type));
+        }
+        return new StringLiteral(this.lexeme).value();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -56,22 +165,19 @@ public final class ExplicitToken implements Token {
      */
     @Override
     public String toString() {
-        return "ExplicitToken{type=%s, lexeme='%s', position=%s}".formatted(this.type, this.lexeme, this.position);
+        return "ExplicitToken{type=%s, lexeme='%s', position=%s}".formatted(this.type, this.lexeme, this.position());
     }
 
     @Override
     public boolean equals(final Object o) {
-        if (o == null || this.getClass() != o.getClass()) {
-            return false;
-        }
-        ExplicitToken that = (ExplicitToken) o;
-        return this.type == that.type
-            && Objects.equals(this.lexeme, that.lexeme)
-            && Objects.equals(this.position, that.position);
+        return o instanceof Token that
+            && this.type == that.type()
+            && CharSequence.compare(this.lexeme, that.text()) == 0
+            && Objects.equals(this.position(), that.position());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(this.type, this.lexeme, this.position);
+        return Objects.hash(this.type, this.lexeme, this.position());
     }
 }
@@ -0,0 +1,115 @@
+package com.andreychh.lox.token;
+
+import com.andreychh.lox.source.CharClass;
+
+/**
+ * Represents the lexeme of a string literal, quotes included, and decodes the value it denotes.
+ * <p>
+ * The escape sequences {@code \n}, {@code \t}, {@code \"} and {@code \\} stand for the characters they name, and a
+ * backslash followed by {@code u} and four hexadecimal digits for the UTF-16 code unit they spell. A backslash
+ * followed by anything else is reported by the lexer and kept in the value as it is. A lexeme without backslashes is
+ * cut between its quotes without decoding.
+ * <p>
+ * {@snippet :
+ * String value = new StringLiteral("\"tab:\\t\\u0021\"").value(); // "tab:\t!"
+ *}
+ */
+public final class StringLiteral {
+    private static final CharClass HEX = new CharClass("0123456789abcdefABCDEF");
+    private static final int UNICODE = 6;
+    private static final int RADIX = 16;
+
+    private final CharSequence lexeme;
+
+    /**
+     * Constructs a literal from its lexeme.
+     *
+     * @param lexeme the characters of the literal, from the opening quote to the closing one
+     */
+    public StringLiteral(final CharSequence lexeme) {
+        this.lexeme = lexeme;
+    }
+
+    /**
+     * Decodes the value of the literal.
+     *
+     * @return the characters between the quotes, with escape sequences replaced
+     */
+    public String value() {
+        int end = this.lexeme.length() - 1;
+        int plain = this.plain(1, end);
+        if (plain == end) {
+            return this.lexeme.subSequence(1, end).toString();
+        }
+        StringBuilder value = new StringBuilder(end).append(this.lexeme, 1, plain);
+        int offset = plain;
+        while (offset < end) {
+            offset += this.escape(offset, end, value);
+            int next = this.plain(offset, end);
+            value.append(this.lexeme, offset, next);
+            offset = next;
+        }
+        return value.toString();
+    }
+
+    /**
+     * Finds the next backslash.
+     *
+     * @param from the offset to start at
+     * @param end  the offset of the closing quote
+     * @return the offset of the backslash, or {@code end} if there is none
+     */
+    private int plain(final int from, final int end) {
+        int offset = from;
+        while (offset < end && this.lexeme.charAt(offset) != '\\') {
+            offset++;
+        }
+        return offset;
+    }
+
+    /**
+     * Appends the character an escape sequence stands for.
+     *
+     * @param offset the offset of the backslash
+     * @param end    the offset of the closing quote
+     * @param value  the value decoded so far
+     * @return the number of characters of the sequence, or {@code 1} to keep the backslash of an invalid one
+     */
+    private int escape(final int offset, final int end, final StringBuilder value) {
+        char kind = offset + 1 < end ? this.lexeme.charAt(offset + 1) : '\0';
+        int length = 2;
+        if (kind == 'n') {
+            value.append('\n');
+        } else if (kind == 't') {
+            value.append('\t');
+        } else if (kind == '"' || kind == '\\') {
+            value.append(kind);
+        } else if (kind == 'u' && this.isUnicode(offset, end)) {
+            value.append((char) Integer.parseInt(this.lexeme, offset + 2, offset + UNICODE, RADIX));
+            length = UNICODE;
+        } else {
+            value.append('\\');
+            length = 1;
+        }
+        return length;
+    }
+
+    /**
+     * Checks whether four hexadecimal digits follow the {@code u} after a backslash.
+     *
+     * @param offset the offset of the backslash
+     * @param end    the offset of the closing quote
+     * @return {@code true} if the digits are there, {@code false} otherwise
+     */
+    private boolean isUnicode(final int offset, final int end) {
+        if (offset + UNICODE > end) {
+            return false;
+        }
+        for (int i = offset + 2; i < offset + UNICODE; i++) {
+            if (!HEX.contains(this.lexeme.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
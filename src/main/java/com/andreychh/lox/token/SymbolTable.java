@@ -0,0 +1,279 @@
+package com.andreychh.lox.token;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.andreychh.lox.source.Source;
+
+/**
+ * Interns the names lexed in one run, giving each distinct name a canonical string and a dense id.
+ * <p>
+ * The table uses open addressing with linear probing, kept at most half full. Names are hashed and compared straight
+ * from the source characters, so looking up a name that was already seen allocates nothing; only the first occurrence
+ * of a name is copied into a string. Ids are assigned in order of first occurrence, starting at {@code 0}, so later
+ * stages can compare names by id and index arrays by it.
+ * <p>
+ * {@snippet :
+ * SymbolTable symbols = new SymbolTable();
+ * Source source = new TextSource("x y x");
+ * int first = symbols.intern(source, 1); // 0
+ * int second = symbols.intern(source.skip(2), 1); // 1
+ * int again = symbols.intern(source.skip(4), 1); // 0
+ *}
+ */
+public final class SymbolTable {
+    /**
+     * The id of tokens that carry no symbol.
+     */
+    public static final int NONE = -1;
+
+    private static final int CAPACITY = 64;
+    private static final int SPREAD = 16;
+    private static final int MULTIPLIER = 31;
+
+    private final AtomicReference<Table> table;
+    private final AtomicInteger count;
+
+    /**
+     * Constructs an empty table.
+     */
+    public SymbolTable() {
+        this.table = new AtomicReference<>(new Table(CAPACITY));
+        this.count = new AtomicInteger(0);
+    }
+
+    /**
+     * Returns the id of the name spanning the given characters, adding the name if it is new.
+     *
+     * @param start  the source positioned at the first character of the name
+     * @param length the number of characters in the name
+     * @return the dense id of the name
+     */
+    public int intern(final Source start, final int length) {
+        return this.intern(start, 0, length);
+    }
+
+    /**
+     * Returns the id of the name spanning the given characters of a source, adding the name if it is new.
+     *
+     * @param source the source holding the name
+     * @param from   the offset of the first character of the name from the current position of the source
+     * @param length the number of characters in the name
+     * @return the dense id of the name
+     */
+    public synchronized int intern(final Source source, final int from, final int length) {
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = MULTIPLIER * hash + source.peekChar(from + i);
+        }
+        Table current = this.table.get();
+        int slot = current.first(hash);
+        while (current.slots()[slot] != 0) {
+            int id = current.slots()[slot] - 1;
+            if (current.holds(id, hash, length) && SymbolTable.spells(current.names()[id], source, from)) {
+                return id;
+            }
+            slot = current.next(slot);
+        }
+        char[] name = new char[length];
+        for (int i = 0; i < length; i++) {
+            name[i] = source.peekChar(from + i);
+        }
+        return this.added(hash, slot, new String(name));
+    }
+
+    /**
+     * Returns the id of the name spanning the given characters of a text, adding the name if it is new.
+     *
+     * @param text   the text holding the name
+     * @param start  the offset of the first character of the name
+     * @param length the number of characters in the name
+     * @return the dense id of the name
+     */
+    public synchronized int intern(final CharSequence text, final int start, final int length) {
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = MULTIPLIER * hash + text.charAt(start + i);
+        }
+        Table current = this.table.get();
+        int slot = current.first(hash);
+        while (current.slots()[slot] != 0) {
+            int id = current.slots()[slot] - 1;
+            if (current.holds(id, hash, length) && SymbolTable.spells(current.names()[id], text, start)) {
+                return id;
+            }
+            slot = current.next(slot);
+        }
+        return this.added(hash, slot, text.subSequence(start, start + length).toString());
+    }
+
+    /**
+     * Returns the id of the given name, adding the name if it is new.
+     *
+     * @param name the name
+     * @return the dense id of the name
+     */
+    public int intern(final String name) {
+        return this.intern(name, 0, name.length());
+    }
+
+    /**
+     * Returns the canonical string of the name with the given id.
+     *
+     * @param id an id returned by this table
+     * @return the name
+     */
+    public String name(final int id) {
+        return this.table.get().names()[id];
+    }
+
+    /**
+     * Returns the number of distinct names.
+     *
+     * @return the number of names interned so far
+     */
+    public int size() {
+        return this.count.get();
+    }
+
+    /**
+     * Adds a name that is not in the table yet, growing the table if it is full.
+     *
+     * @param hash the hash of the name
+     * @param slot the empty slot where the probe for the name ended
+     * @param name the name
+     * @return the id given to the name
+     */
+    private int added(final int hash, final int slot, final String name) {
+        Table current = this.table.get();
+        int free = slot;
+        int id = this.count.get();
+        if (id == current.names().length) {
+            current = current.grown(id);
+            this.table.set(current);
+            free = current.free(hash);
+        }
+        current.slots()[free] = id + 1;
+        current.names()[id] = name;
+        current.hashes()[id] = hash;
+        this.count.incrementAndGet();
+        return id;
+    }
+
+    /**
+     * Checks whether a name spells the characters of a source, given that their lengths are equal.
+     *
+     * @param name   the name
+     * @param source the source holding the characters
+     * @param from   the offset of the first character from the current position of the source
+     * @return {@code true} if every character matches, {@code false} otherwise
+     */
+    private static boolean spells(final String name, final Source source, final int from) {
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) != source.peekChar(from + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether a name spells the characters of a text, given that their lengths are equal.
+     *
+     * @param name  the name
+     * @param text  the text holding the characters
+     * @param start the offset of the first character in the text
+     * @return {@code true} if every character matches, {@code false} otherwise
+     */
+    private static boolean spells(final String name, final CharSequence text, final int start) {
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) != text.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Represents the probing slots and the names they point to.
+     *
+     * @param slots  the open-addressing slots, each holding an id plus one, or {@code 0} if empty
+     * @param names  the names by id
+     * @param hashes the hashes of the names by id
+     */
+    private record Table(int[] slots, String[] names, int[] hashes) {
+        /**
+         * Constructs an empty table.
+         *
+         * @param capacity the number of slots, a power of two
+         */
+        Table(final int capacity) {
+            this(new int[capacity], new String[capacity / 2], new int[capacity / 2]);
+        }
+
+        /**
+         * Returns the slot where the probe for a name with the given hash starts.
+         *
+         * @param hash the hash of the name
+         * @return the index of the slot
+         */
+        int first(final int hash) {
+            return (hash ^ hash >>> SPREAD) & (this.slots.length - 1);
+        }
+
+        /**
+         * Returns the slot the probe moves to after the given one.
+         *
+         * @param slot the index of a slot
+         * @return the index of the following slot, wrapping around
+         */
+        int next(final int slot) {
+            return (slot + 1) & (this.slots.length - 1);
+        }
+
+        /**
+         * Finds the first empty slot on the probe for a name with the given hash.
+         *
+         * @param hash the hash of the name
+         * @return the index of the slot
+         */
+        int free(final int hash) {
+            int slot = this.first(hash);
+            while (this.slots[slot] != 0) {
+                slot = this.next(slot);
+            }
+            return slot;
+        }
+
+        /**
+         * Checks whether the name with the given id may spell characters of the given hash and length.
+         *
+         * @param id     the id of a name in the table
+         * @param hash   the hash of the characters
+         * @param length the number of characters
+         * @return {@code true} if the hash and the length match, {@code false} otherwise
+         */
+        boolean holds(final int id, final int hash, final int length) {
+            return this.hashes[id] == hash && this.names[id].length() == length;
+        }
+
+        /**
+         * Builds a table with twice as many slots holding the same names.
+         *
+         * @param count the number of names in this table
+         * @return the larger table
+         */
+        Table grown(final int count) {
+            Table larger = new Table(
+                new int[this.slots.length * 2],
+                Arrays.copyOf(this.names, this.slots.length),
+                Arrays.copyOf(this.hashes, this.slots.length)
+            );
+            for (int id = 0; id < count; id++) {
+                larger.slots[larger.free(this.hashes[id])] = id + 1;
+            }
+            return larger;
+        }
+    }
+}
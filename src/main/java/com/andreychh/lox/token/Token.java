@@ -1,7 +1,12 @@
 package com.andreychh.lox.token;
 
+import com.andreychh.lox.Position;
+
 /**
  * Represents a lexical token in the source code.
+ * <p>
+ * Tokens are equal when they have the same type, lexeme and position, whatever class implements them. The symbol id
+ * is not part of equality, since it depends on the table of the lexing run.
  */
 public interface Token {
     /**
@@ -18,4 +23,62 @@ public interface Token {
      * @return the lexeme of the token
      */
     String lexeme();
+
+    /**
+     * Returns the characters of the lexeme without necessarily copying them into a string.
+     * <p>
+     * Consumers that only inspect or compare characters should prefer this method over {@link #lexeme()}, which may
+     * build a new string on every call.
+     *
+     * @return the characters of the lexeme, equal in content to {@link #lexeme()}
+     */
+    CharSequence text();
+
+    /**
+     * Returns the type of this token.
+     *
+     * @return the token type
+     */
+    TokenType type();
+
+    /**
+     * Returns the position of the first character of this token in the source code.
+     *
+     * @return the position of the token
+     */
+    Position position();
+
+    /**
+     * Returns the offset of the first character of this token in the source code.
+     *
+     * @return the offset of the token, {@code 0} for a token built from a position rather than lexed from a source
+     */
+    int offset();
+
+    /**
+     * Returns the id of the lexeme in the {@link SymbolTable} of the lexing run.
+     * <p>
+     * Identifiers and string literals carry a symbol, so later stages can compare them by id instead of by string.
+     * An identifier carries its name and a string literal its decoded value, so two identifiers of one run carry the
+     * same id exactly when their names are equal, and two string literals exactly when their values are.
+     *
+     * @return the dense symbol id, or {@link SymbolTable#NONE} if the token carries no symbol
+     */
+    int symbol();
+
+    /**
+     * Returns the value of a numeric literal, decoded by the lexer while it scanned the digits.
+     *
+     * @return the value of the literal
+     * @throws IllegalStateException if the token is not of type {@link TokenType#NUMBER}
+     */
+    double number();
+
+    /**
+     * Returns the value of a string literal, without its quotes and with its escape sequences decoded.
+     *
+     * @return the value of the literal
+     * @throws IllegalStateException if the token is not of type {@link TokenType#STRING}
+     */
+    String string();
 }
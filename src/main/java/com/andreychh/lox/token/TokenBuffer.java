@@ -0,0 +1,670 @@
+package com.andreychh.lox.token;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntUnaryOperator;
+
+import com.andreychh.lox.Position;
+import com.andreychh.lox.source.Source;
+import com.andreychh.lox.source.TextSource;
+
+/**
+ * Represents a compact, persistent sequence of tokens stored as parallel columns.
+ * <p>
+ * Each token takes a type byte, a start offset, a length and a symbol id, thirteen bytes in total, instead of a token
+ * object holding a lexeme string and a position object. Numeric literals carry no symbol, so their symbol column holds
+ * the index of their value in a separate column of values, and only they take eight more bytes. Lexemes and positions
+ * are read from the source text only when a {@link Token} view asks for them, so the text must stay readable: tokens
+ * are appended from a {@link Source#durable() durable} source, and an empty buffer adopts the text of the first token
+ * appended to it.
+ * Identifiers return their canonical name from the {@link SymbolTable} of the buffer instead. String literals, whose
+ * symbol names their decoded value, are read from the text like other tokens.
+ * <p>
+ * Like {@link com.andreychh.lox.collection.AppendOnlyList}, every version shares one set of columns, and appending to
+ * the newest version writes in place, so appending costs amortized constant time.
+ * <p>
+ * {@snippet :
+ * Source source = new TextSource("var x");
+ * TokenBuffer tokens = new TokenBuffer().with(TokenType.VAR, source, 3).with(TokenType.IDENTIFIER, source.skip(4), 1);
+ * Token name = tokens.asList().get(1); // IDENTIFIER "x" at 1:5
+ *}
+ */
+public final class TokenBuffer {
+    private static final int CAPACITY = 16;
+    private static final TokenType[] TYPES = TokenType.values();
+    private static final byte NUMBER = (byte) TokenType.NUMBER.ordinal();
+
+    private final Source text;
+    private final SymbolTable symbols;
+    private final Store store;
+    private final int size;
+
+    /**
+     * Constructs a version of the buffer holding the first tokens of the given store.
+     *
+     * @param text    a source over the text the tokens refer to, at or before the first token
+     * @param symbols the table of the symbols carried by the tokens
+     * @param store   the columns shared by every version
+     * @param size    the number of tokens in this version
+     */
+    private TokenBuffer(final Source text, final SymbolTable symbols, final Store store, final int size) {
+        this.text = text;
+        this.symbols = symbols;
+        this.store = store;
+        this.size = size;
+    }
+
+    /**
+     * Constructs an empty buffer whose tokens carry symbols of the given table.
+     *
+     * @param symbols the symbol table of the lexing run
+     */
+    public TokenBuffer(final SymbolTable symbols) {
+        this(new TextSource(""), symbols, new Store(new Columns(CAPACITY), 0, 0), 0);
+    }
+
+    /**
+     * Constructs an empty buffer with a symbol table of its own.
+     */
+    public TokenBuffer() {
+        this(new SymbolTable());
+    }
+
+    /**
+     * Returns a buffer with a token spanning the given characters appended.
+     *
+     * @param type   the type of the token
+     * @param start  the durable source positioned at the first character of the token
+     * @param length the number of characters in the lexeme
+     * @return a buffer holding the tokens of this one followed by the new token
+     */
+    public TokenBuffer with(final TokenType type, final Source start, final int length) {
+        return this.with(type, start, length, SymbolTable.NONE);
+    }
+
+    /**
+     * Returns a buffer with a token carrying a symbol appended.
+     *
+     * @param type   the type of the token
+     * @param start  the durable source positioned at the first character of the token
+     * @param length the number of characters in the lexeme
+     * @param symbol the id of the lexeme in the symbol table of this buffer, or {@link SymbolTable#NONE}
+     * @return a buffer holding the tokens of this one followed by the new token
+     */
+    public TokenBuffer with(final TokenType type, final Source start, final int length, final int symbol) {
+        return this.with(type, start, length, symbol, Double.NaN);
+    }
+
+    /**
+     * Returns a buffer with a numeric literal appended.
+     *
+     * @param start  the durable source positioned at the first character of the literal
+     * @param length the number of characters in the lexeme
+     * @param value  the value of the literal
+     * @return a buffer holding the tokens of this one followed by the new token
+     */
+    public TokenBuffer withNumber(final Source start, final int length, final double value) {
+        return this.with(TokenType.NUMBER, start, length, SymbolTable.NONE, value);
+    }
+
+    /**
+     * Returns a buffer with all tokens of the given buffer appended.
+     * <p>
+     * Symbols of the other buffer are interned into the table of this one, so the result carries a single table.
+     *
+     * @param other the buffer to append, whose tokens refer to the same text and follow the tokens of this one
+     * @return a buffer holding the tokens of this one followed by those of the other
+     */
+    public TokenBuffer withAll(final TokenBuffer other) {
+        if (this.size == 0 && this.symbols == other.symbols) {
+            return other;
+        }
+        TokenBuffer target = this.size == 0 ? new TokenBuffer(other.text, this.symbols, this.store.emptied(), 0) : this;
+        synchronized (target.store) {
+            Store appended = target.writable();
+            int first = appended.putAll(other.store.columns(), 0, other.size, 0);
+            if (this.symbols != other.symbols) {
+                appended.remap(first, other.size, id -> this.symbols.intern(other.symbols.name(id)));
+            }
+            return new TokenBuffer(target.text, this.symbols, appended, target.size + other.size);
+        }
+    }
+
+    /**
+     * Returns a buffer with a range of tokens of another buffer appended, moved to another place of another text.
+     * <p>
+     * The rows are copied in bulk, with their start offsets shifted, so carrying tokens over to an edited text costs
+     * no lexing and no allocation per token.
+     *
+     * @param other the buffer holding the tokens to move
+     * @param from  the index of the first token to move
+     * @param to    the index following the last token to move
+     * @param start the durable source positioned where the first moved token now starts, holding the same characters
+     * @return a buffer holding the tokens of this one followed by the moved tokens
+     */
+    public TokenBuffer withMoved(final TokenBuffer other, final int from, final int to, final Source start) {
+        if (from == to) {
+            return this;
+        }
+        TokenBuffer target = this.size == 0 ? new TokenBuffer(start, this.symbols, this.store.emptied(), 0) : this;
+        synchronized (target.store) {
+            Store appended = target.writable();
+            int first = appended.putAll(other.store.columns(), from, to - from, start.offset() - other.offset(from));
+            if (this.symbols != other.symbols) {
+                appended.remap(first, to - from, id -> this.symbols.intern(other.symbols.name(id)));
+            }
+            return new TokenBuffer(target.text, this.symbols, appended, target.size + to - from);
+        }
+    }
+
+    /**
+     * Returns the buffer holding the first tokens of this one.
+     *
+     * @param count the number of tokens to keep, at most {@link #size()}
+     * @return a buffer sharing the columns of this one
+     */
+    public TokenBuffer prefix(final int count) {
+        return new TokenBuffer(this.text, this.symbols, this.store, count);
+    }
+
+    /**
+     * Returns the number of tokens.
+     *
+     * @return the number of tokens in this version
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the symbol table of the tokens.
+     *
+     * @return the table resolving the symbols carried by the tokens
+     */
+    public SymbolTable symbols() {
+        return this.symbols;
+    }
+
+    /**
+     * Returns the tokens as a list of lightweight views.
+     *
+     * @return an unmodifiable list whose elements read their lexemes and positions on demand
+     */
+    public List<Token> asList() {
+        return new Tokens(this);
+    }
+
+    /**
+     * Returns the type of the token at the given index.
+     *
+     * @param index the index of a token
+     * @return the type of the token
+     */
+    TokenType type(final int index) {
+        return TYPES[this.store.columns().types()[index]];
+    }
+
+    /**
+     * Returns the characters of the token at the given index.
+     *
+     * @param index the index of a token
+     * @return the canonical name of the symbol of an identifier, or a slice of the text
+     */
+    CharSequence text(final int index) {
+        int symbol = this.symbol(index);
+        if (symbol != SymbolTable.NONE && this.type(index) != TokenType.STRING) {
+            return this.symbols.name(symbol);
+        }
+        return this.at(index).take(this.store.columns().lengths()[index]).text();
+    }
+
+    /**
+     * Returns the symbol id of the token at the given index.
+     *
+     * @param index the index of a token
+     * @return the id in the symbol table, or {@link SymbolTable#NONE}
+     */
+    int symbol(final int index) {
+        if (this.type(index) == TokenType.NUMBER) {
+            return SymbolTable.NONE;
+        }
+        return this.store.columns().symbols()[index];
+    }
+
+    /**
+     * Returns the value of the numeric literal at the given index.
+     *
+     * @param index the index of a token
+     * @return the value decoded by the lexer
+     * @throws IllegalStateException if the token is not a numeric literal
+     */
+    double number(final int index) {
+        if (this.type(index) != TokenType.NUMBER) {
+            throw new IllegalStateException("Token %s is not a numeric literal".formatted(this.type(index)));
+        }
+        Columns columns = this.store.columns();
+        return columns.numbers()[columns.symbols()[index]];
+    }
+
+    /**
+     * Returns the value of the string literal at the given index.
+     *
+     * @param index the index of a token
+     * @return the value interned by the lexer, or decoded from the text if the token carries no symbol
+     * @throws IllegalStateException if the token is not a string literal
+     */
+    String string(final int index) {
+        if (this.type(index) != TokenType.STRING) {
+            throw new IllegalStateException("Token %s is not a string literal".formatted(this.type(index)));
+        }
+        int symbol = this.symbol(index);
+        if (symbol == SymbolTable.NONE) {
+            return new StringLiteral(this.text(index)).value();
+        }
+        return this.symbols.name(symbol);
+    }
+
+    /**
+     * Returns the offset of the token at the given index.
+     *
+     * @param index the index of a token
+     * @return the offset of the first character of the token in the text
+     */
+    int offset(final int index) {
+        return this.store.columns().starts()[index];
+    }
+
+    /**
+     * Returns the position of the token at the given index.
+     *
+     * @param index the index of a token
+     * @return the position resolved from the start offset of the token
+     */
+    Position position(final int index) {
+        return this.text.positions().position(this.offset(index));
+    }
+
+    /**
+     * Returns a source positioned at the token at the given index.
+     *
+     * @param index the index of a token
+     * @return the source at the start of the token
+     */
+    private Source at(final int index) {
+        return this.text.skip(this.offset(index) - this.text.offset());
+    }
+
+    /**
+     * Returns a buffer with a token appended.
+     *
+     * @param type   the type of the token
+     * @param start  the durable source positioned at the first character of the token
+     * @param length the number of characters in the lexeme
+     * @param symbol the symbol id of the token
+     * @param number the numeric value of the token
+     * @return a buffer holding the tokens of this one followed by the new token
+     */
+    private TokenBuffer with(
+        final TokenType type,
+        final Source start,
+        final int length,
+        final int symbol,
+        final double number
+    ) {
+        TokenBuffer target = this.size == 0 ? new TokenBuffer(start, this.symbols, this.store.emptied(), 0) : this;
+        synchronized (target.store) {
+            Store appended = target.writable();
+            appended.put(type, start.offset(), length, symbol, number);
+            return new TokenBuffer(target.text, this.symbols, appended, target.size + 1);
+        }
+    }
+
+    /**
+     * Returns a store that this version can append to in place, copying the columns if a newer version has already
+     * appended to the shared store or the store belongs to a {@link Writer}.
+     *
+     * @return the shared store, or a copy holding the tokens of this version
+     */
+    private Store writable() {
+        if (!this.store.sealed() && this.store.filled() == this.size) {
+            return this.store;
+        }
+        Columns columns = this.store.columns();
+        return new Store(
+            columns.copied(this.size, Math.max(this.size * 2, CAPACITY)).withNumbers(columns.numbers().clone()),
+            this.size,
+            this.store.numbered()
+        );
+    }
+
+    /**
+     * Represents a mutable cursor appending tokens to a buffer in place, for lexers that trade immutability for
+     * throughput.
+     * <p>
+     * Writing a token stores its columns and allocates nothing. The buffer read from a writer is an ordinary persistent
+     * version; tokens written afterwards are not visible through it. The store of the writer is sealed, so appending to
+     * that version copies the columns instead of writing into the rows the writer fills next.
+     * <p>
+     * {@snippet :
+     * TokenBuffer.Writer writer = new TokenBuffer.Writer(new TextSource("var x"), new SymbolTable());
+     * writer.write(TokenType.VAR, 0, 3, SymbolTable.NONE, Double.NaN);
+     * TokenBuffer tokens = writer.buffer(); // VAR "var" at 1:1
+     *}
+     */
+    public static final class Writer {
+        private final Source text;
+        private final SymbolTable symbols;
+        private final Store store;
+
+        /**
+         * Constructs a writer of tokens of the given text.
+         *
+         * @param text    a durable source at the start of the text the tokens refer to
+         * @param symbols the table of the symbols carried by the tokens
+         */
+        public Writer(final Source text, final SymbolTable symbols) {
+            this.text = text;
+            this.symbols = symbols;
+            this.store = new Store(new Columns(CAPACITY), 0, 0, true);
+        }
+
+        /**
+         * Appends a token.
+         *
+         * @param type   the type of the token
+         * @param start  the offset of the first character of the lexeme
+         * @param length the number of characters in the lexeme
+         * @param symbol the id of the lexeme in the symbol table of this writer, or {@link SymbolTable#NONE}
+         * @param number the value of a numeric literal, ignored for tokens of other types
+         */
+        public void write(
+            final TokenType type,
+            final int start,
+            final int length,
+            final int symbol,
+            final double number
+        ) {
+            synchronized (this.store) {
+                this.store.put(type, start, length, symbol, number);
+            }
+        }
+
+        /**
+         * Returns the tokens written so far.
+         *
+         * @return a buffer holding the written tokens
+         */
+        public TokenBuffer buffer() {
+            synchronized (this.store) {
+                return new TokenBuffer(this.text, this.symbols, this.store, this.store.filled());
+            }
+        }
+    }
+
+    /**
+     * Represents the columns of a buffer and the number of rows and numeric values filled, shared by every version.
+     */
+    private static final class Store {
+        private final AtomicReference<Columns> columns;
+        private final AtomicInteger filled;
+        private final AtomicInteger numbered;
+        private final boolean sealed;
+
+        /**
+         * Constructs a store over the given columns.
+         *
+         * @param columns  the columns
+         * @param filled   the number of rows already filled
+         * @param numbered the number of numeric values already filled
+         * @param sealed   whether persistent versions must copy the columns instead of appending in place
+         */
+        Store(final Columns columns, final int filled, final int numbered, final boolean sealed) {
+            this.columns = new AtomicReference<>(columns);
+            this.filled = new AtomicInteger(filled);
+            this.numbered = new AtomicInteger(numbered);
+            this.sealed = sealed;
+        }
+
+        /**
+         * Constructs a store over the given columns that persistent versions append to in place.
+         *
+         * @param columns  the columns
+         * @param filled   the number of rows already filled
+         * @param numbered the number of numeric values already filled
+         */
+        Store(final Columns columns, final int filled, final int numbered) {
+            this(columns, filled, numbered, false);
+        }
+
+        /**
+         * Returns the current columns.
+         *
+         * @return the columns, holding at least {@link #filled()} rows
+         */
+        Columns columns() {
+            return this.columns.get();
+        }
+
+        /**
+         * Returns the number of rows filled.
+         *
+         * @return the number of rows
+         */
+        int filled() {
+            return this.filled.get();
+        }
+
+        /**
+         * Returns whether persistent versions must copy the columns before appending.
+         *
+         * @return true for the store of a {@link Writer}
+         */
+        boolean sealed() {
+            return this.sealed;
+        }
+
+        /**
+         * Returns the number of numeric values filled.
+         *
+         * @return the number of values
+         */
+        int numbered() {
+            return this.numbered.get();
+        }
+
+        /**
+         * Returns a new, empty store.
+         *
+         * @return a store with no rows
+         */
+        Store emptied() {
+            return new Store(new Columns(CAPACITY), 0, 0);
+        }
+
+        /**
+         * Appends a row.
+         *
+         * @param type   the token type
+         * @param start  the start offset
+         * @param length the lexeme length
+         * @param symbol the symbol id
+         * @param number the numeric value, stored only for numeric literals
+         */
+        void put(final TokenType type, final int start, final int length, final int symbol, final double number) {
+            int row = this.reserve(1);
+            Columns target = this.columns.get();
+            target.types()[row] = (byte) type.ordinal();
+            target.starts()[row] = start;
+            target.lengths()[row] = length;
+            if (type == TokenType.NUMBER) {
+                target.symbols()[row] = this.number(number);
+            } else {
+                target.symbols()[row] = symbol;
+            }
+        }
+
+        /**
+         * Appends a range of rows of the given columns.
+         *
+         * @param rows  the columns to copy rows from
+         * @param from  the index of the first row to copy
+         * @param count the number of rows to copy
+         * @param shift the number added to the start offset of every copied row
+         * @return the index of the first appended row
+         */
+        int putAll(final Columns rows, final int from, final int count, final int shift) {
+            int row = this.reserve(count);
+            Columns target = this.columns.get();
+            System.arraycopy(rows.types(), from, target.types(), row, count);
+            System.arraycopy(rows.starts(), from, target.starts(), row, count);
+            System.arraycopy(rows.lengths(), from, target.lengths(), row, count);
+            System.arraycopy(rows.symbols(), from, target.symbols(), row, count);
+            for (int i = row; i < row + count; i++) {
+                target.starts()[i] += shift;
+                if (target.types()[i] == NUMBER) {
+                    target.symbols()[i] = this.number(rows.numbers()[target.symbols()[i]]);
+                }
+            }
+            return row;
+        }
+
+        /**
+         * Replaces the symbol ids of the given rows.
+         *
+         * @param from    the index of the first row
+         * @param count   the number of rows
+         * @param mapping the function turning an old id into a new one
+         */
+        void remap(final int from, final int count, final IntUnaryOperator mapping) {
+            Columns target = this.columns.get();
+            int[] symbols = target.symbols();
+            for (int row = from; row < from + count; row++) {
+                if (symbols[row] != SymbolTable.NONE && target.types()[row] != NUMBER) {
+                    symbols[row] = mapping.applyAsInt(symbols[row]);
+                }
+            }
+        }
+
+        /**
+         * Appends a numeric value, growing its column if needed.
+         *
+         * @param value the value of a numeric literal
+         * @return the index of the value, stored in the symbol column of its row
+         */
+        private int number(final double value) {
+            int index = this.numbered.getAndIncrement();
+            Columns current = this.columns.get();
+            if (index == current.numbers().length) {
+                current = current.withNumbers(Arrays.copyOf(current.numbers(), Math.max(index * 2, CAPACITY)));
+                this.columns.set(current);
+            }
+            current.numbers()[index] = value;
+            return index;
+        }
+
+        /**
+         * Reserves rows at the end of the store, growing the columns if needed.
+         * <p>
+         * The columns grow to twice the rows needed, so a bulk append followed by further appends copies them once.
+         *
+         * @param count the number of rows to reserve
+         * @return the index of the first reserved row
+         */
+        private int reserve(final int count) {
+            int row = this.filled.getAndAdd(count);
+            Columns current = this.columns.get();
+            if (row + count > current.types().length) {
+                this.columns.set(current.copied(row, Math.max(current.types().length, row + count) * 2));
+            }
+            return row;
+        }
+    }
+
+    /**
+     * Represents the parallel arrays holding the tokens.
+     *
+     * @param types   the ordinals of the token types
+     * @param starts  the offsets of the first characters of the lexemes
+     * @param lengths the lengths of the lexemes
+     * @param symbols the symbol ids of the lexemes, or {@link SymbolTable#NONE}, and for numeric literals the indexes
+     *                of their values
+     * @param numbers the values of the numeric literals, in the order they were appended
+     */
+    private record Columns(byte[] types, int[] starts, int[] lengths, int[] symbols, double[] numbers) {
+        /**
+         * Constructs empty columns.
+         *
+         * @param capacity the number of rows
+         */
+        Columns(final int capacity) {
+            this(new byte[capacity], new int[capacity], new int[capacity], new int[capacity], new double[0]);
+        }
+
+        /**
+         * Copies the first rows into larger columns.
+         *
+         * @param rows     the number of rows to copy
+         * @param capacity the number of rows of the copy
+         * @return the copy
+         */
+        Columns copied(final int rows, final int capacity) {
+            Columns copy = new Columns(capacity).withNumbers(this.numbers);
+            System.arraycopy(this.types, 0, copy.types, 0, rows);
+            System.arraycopy(this.starts, 0, copy.starts, 0, rows);
+            System.arraycopy(this.lengths, 0, copy.lengths, 0, rows);
+            System.arraycopy(this.symbols, 0, copy.symbols, 0, rows);
+            return copy;
+        }
+
+        /**
+         * Returns the same rows with another column of numeric values.
+         *
+         * @param values the values of the numeric literals
+         * @return the columns sharing every row column of these
+         */
+        Columns withNumbers(final double[] values) {
+            return new Columns(this.types, this.starts, this.lengths, this.symbols, values);
+        }
+    }
+
+    /**
+     * Represents the tokens of a buffer version as a list of views.
+     */
+    private static final class Tokens extends AbstractList<Token> implements RandomAccess {
+        private final TokenBuffer buffer;
+
+        /**
+         * Constructs a list over the given buffer.
+         *
+         * @param buffer the buffer version to expose
+         */
+        Tokens(final TokenBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Token get(final int index) {
+            if (index < 0 || index >= this.buffer.size) {
+                throw new IndexOutOfBoundsException(
+                    "Index %d out of bounds for length %d".formatted(index, this.buffer.size)
+                );
+            }
+            return new BufferedToken(this.buffer, index);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int size() {
+            return this.buffer.size;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.andreychh.lox.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for {@link AppendOnlyList}.
+ */
+final class AppendOnlyListTest {
+    @Test
+    void appendsElementsInOrder() {
+        assertEquals(
+            List.of("a", "b", "c"),
+            new AppendOnlyList<String>().with("a").with("b").with("c").asList(),
+            "AppendOnlyList does not keep elements in order of appending"
+        );
+    }
+
+    @Test
+    void keepsOlderInstanceUnchangedAfterAppend() {
+        AppendOnlyList<String> one = new AppendOnlyList<String>().with("a");
+        one.with("b");
+        assertEquals(
+            List.of("a"),
+            one.asList(),
+            "AppendOnlyList exposes elements appended to a newer instance"
+        );
+    }
+
+    @Test
+    void isolatesBranchesAppendedToTheSameInstance() {
+        AppendOnlyList<String> one = new AppendOnlyList<String>().with("a");
+        AppendOnlyList<String> first = one.with("b");
+        AppendOnlyList<String> second = one.with("c");
+        assertEquals(
+            List.of(List.of("a", "b"), List.of("a", "c")),
+            List.of(first.asList(), second.asList()),
+            "AppendOnlyList branches interfere with each other"
+        );
+    }
+
+    @Test
+    void appendsAllElementsOfAnotherList() {
+        assertEquals(
+            List.of("a", "b", "c"),
+            new AppendOnlyList<>(List.of("a")).withAll(new AppendOnlyList<>(List.of("b", "c"))).asList(),
+            "AppendOnlyList does not append all elements of another list"
+        );
+    }
+
+    @Test
+    void reportsItsSize() {
+        assertEquals(
+            2,
+            new AppendOnlyList<String>().with("a").with("b").size(),
+            "AppendOnlyList reports an incorrect size"
+        );
+    }
+}
@@ -0,0 +1,83 @@
+package com.andreychh.lox.lexing;
+
+import com.andreychh.lox.error.Error;
+import com.andreychh.lox.source.TextSource;
+import com.andreychh.lox.token.Token;
+import com.andreychh.lox.token.TokenType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Differential tests for {@link FastLexer} against {@link LexingFSM}.
+ */
+final class FastLexerTest {
+    private static final List<String> FRAGMENTS = List.of(
+        "var", " ", "x", "=", "==", "12.5", "1.", "123456789012345678", ";", "\n", "\"", "\"multi\nline\"",
+        "// comment \"quote\n", "/", "@", "ü", "print", "(", ")", ">=", "<", "!", "!=", "\t", "\r", "and", "7", ".",
+        "_under", "Variable", "{", "}", ",", "+", "-", "*", "\\", "\\\"", "\\n", "\\q", "\\u00e9", "\\u12"
+    );
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "", " \t\n\r", " \n +", "(", "/", "/ ", "//", "//\n", "//comment", "//comment\n", "42", "42.", "42.0",
+        "042.000", "1.2.3", "1..2.3", "==", "?", "?a", "^", "\"\"", "\"abc", "\"abc\"", "\"abc\n\"",
+        "\"你好, мир! 🚀\"", "VAR", "Variable", "_var", "a", "content", "format", "fun(", "var(", "var123",
+        "foo bar foo", "3.14159265358979323846", "\"a\\\"b\"", "\"\\\\\"", "\"\\q\"", "\"\\u0041\\t\"",
+        "\"\\u00g1\"", "\"end\\",
+    })
+    void producesSameResultAsStateMachineForStateTestInputs(final String code) {
+        FastLexerTest.assertSameAsStateMachine(code);
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {1L, 2L, 3L, 5L, 8L, 13L, 21L, 34L, 55L, 89L})
+    void producesSameResultAsStateMachineForRandomText(final long seed) {
+        Random random = new Random(seed);
+        StringBuilder code = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            code.append(FRAGMENTS.get(random.nextInt(FRAGMENTS.size())));
+        }
+        FastLexerTest.assertSameAsStateMachine(code.toString());
+    }
+
+    @Test
+    void internsRepeatedNames() {
+        List<Token> tokens = new FastLexer("x \"s\" x \"s\"").tokenize().tokens();
+        assertEquals(
+            List.of(tokens.get(0).symbol(), tokens.get(1).symbol()),
+            List.of(tokens.get(2).symbol(), tokens.get(3).symbol()),
+            "FastLexer gave repeated names different symbol ids"
+        );
+    }
+
+    private static void assertSameAsStateMachine(final String code) {
+        LexingResult expected = new LexingFSM(new TextSource(code)).tokenize();
+        LexingResult actual = new FastLexer(code).tokenize();
+        assertEquals(
+            expected.tokens(),
+            actual.tokens(),
+            "FastLexer produced different tokens than LexingFSM for '%s'".formatted(code)
+        );
+        assertEquals(
+            expected.tokens().stream().filter(token -> token.type() == TokenType.NUMBER).map(Token::number).toList(),
+            actual.tokens().stream().filter(token -> token.type() == TokenType.NUMBER).map(Token::number).toList(),
+            "FastLexer decoded different numbers than LexingFSM for '%s'".formatted(code)
+        );
+        assertEquals(
+            expected.tokens().stream().filter(token -> token.type() == TokenType.STRING).map(Token::string).toList(),
+            actual.tokens().stream().filter(token -> token.type() == TokenType.STRING).map(Token::string).toList(),
+            "FastLexer decoded different strings than LexingFSM for '%s'".formatted(code)
+        );
+        assertEquals(
+            expected.errors().stream().map(Error::format).toList(),
+            actual.errors().stream().map(Error::format).toList(),
+            "FastLexer produced different errors than LexingFSM for '%s'".formatted(code)
+        );
+    }
+}
@@ -0,0 +1,133 @@
+package com.andreychh.lox.lexing;
+
+import com.andreychh.lox.error.Error;
+import com.andreychh.lox.lexing.monitor.SilentMonitor;
+import com.andreychh.lox.source.TextSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Differential tests for {@link IncrementalLexingFSM} against {@link LexingFSM}.
+ */
+final class IncrementalLexingFSMTest {
+    private static final int LIMIT = 3;
+    private static final List<String> FRAGMENTS = List.of(
+        "var", " ", "x", "=", "12.5", ";", "\n", "\"", "\"multi\nline\"", "// comment \"quote\n", "/", "@",
+        "print", "(", ")", ">=", "!", "\t", "and", "7", ".", "5",
+        "\"esc\\\"aped\nquote\"", "\\"
+    );
+
+    @ParameterizedTest
+    @ValueSource(longs = {1L, 2L, 3L, 5L, 8L, 13L, 21L, 34L, 55L, 89L})
+    void producesSameResultAsFullRelexAfterEveryEdit(final long seed) {
+        Random random = new Random(seed);
+        String code = IncrementalLexingFSMTest.fragments(random, 60);
+        LexingResult result = new LexingFSM(new TextSource(code)).tokenize();
+        for (int i = 0; i < 50; i++) {
+            int offset = random.nextInt(code.length() + 1);
+            TextEdit edit = new TextEdit(
+                offset,
+                random.nextInt(Math.min(4, code.length() - offset) + 1),
+                IncrementalLexingFSMTest.fragments(random, random.nextInt(3))
+            );
+            result = new IncrementalLexingFSM(result, code, edit).tokenize();
+            code = edit.applied(code).toString();
+            IncrementalLexingFSMTest.assertRelexed(code, result);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {1L, 2L, 3L, 5L, 8L, 13L, 21L, 34L, 55L, 89L})
+    void producesSameResultAsLimitedRelexAfterEveryEdit(final long seed) {
+        Random random = new Random(seed);
+        String code = IncrementalLexingFSMTest.fragments(random, 30);
+        LexingResult result = new LexingFSM(new TextSource(code), new SilentMonitor(), LIMIT).tokenize();
+        for (int i = 0; i < 50; i++) {
+            int offset = random.nextInt(code.length() + 1);
+            TextEdit edit = new TextEdit(
+                offset,
+                random.nextInt(Math.min(4, code.length() - offset) + 1),
+                IncrementalLexingFSMTest.fragments(random, random.nextInt(3))
+            );
+            result = new IncrementalLexingFSM(result, code, edit, LIMIT).tokenize();
+            code = edit.applied(code).toString();
+            IncrementalLexingFSMTest.assertRelexed(code, result, LIMIT);
+        }
+    }
+
+    @Test
+    void relexesResultThatStoppedAtLimit() {
+        String code = "a @ b @ c @ d";
+        TextEdit edit = new TextEdit(2, 1, " ");
+        IncrementalLexingFSMTest.assertRelexed(
+            edit.applied(code).toString(),
+            new IncrementalLexingFSM(
+                new LexingFSM(new TextSource(code), new SilentMonitor(), 1).tokenize(), code, edit, 1
+            ).tokenize(),
+            1
+        );
+    }
+
+    @ParameterizedTest
+    @CsvSource(value = {
+        "x = 1;|4|0|.5",
+        "x = 1.;|6|0|5",
+        "a b c|2|0|\"",
+        "a \"b\" c|2|1|''",
+        "a / b|3|0|/",
+        "a // b c|2|1|''",
+        "a = b|2|0|=",
+        "abc|0|3|''",
+    }, delimiter = '|')
+    void relexesTokensAroundEdit(final String code, final int offset, final int removed, final String inserted) {
+        TextEdit edit = new TextEdit(offset, removed, inserted);
+        IncrementalLexingFSMTest.assertRelexed(
+            edit.applied(code).toString(),
+            new IncrementalLexingFSM(new LexingFSM(new TextSource(code)).tokenize(), code, edit).tokenize()
+        );
+    }
+
+    @Test
+    void keepsSymbolIdsOfUnchangedNames() {
+        String code = "alpha beta gamma";
+        LexingResult before = new LexingFSM(new TextSource(code)).tokenize();
+        assertEquals(
+            before.tokens().get(2).symbol(),
+            new IncrementalLexingFSM(before, code, new TextEdit(6, 4, "delta")).tokenize().tokens().get(2).symbol(),
+            "IncrementalLexingFSM changed the symbol id of a name outside the edit"
+        );
+    }
+
+    private static void assertRelexed(final String code, final LexingResult result) {
+        IncrementalLexingFSMTest.assertRelexed(code, result, Integer.MAX_VALUE);
+    }
+
+    private static void assertRelexed(final String code, final LexingResult result, final int limit) {
+        LexingResult full = new LexingFSM(new TextSource(code), new SilentMonitor(), limit).tokenize();
+        assertEquals(
+            full.tokens(),
+            result.tokens(),
+            "IncrementalLexingFSM produced different tokens than a full relex of '%s'".formatted(code)
+        );
+        assertEquals(
+            full.errors().stream().map(Error::format).toList(),
+            result.errors().stream().map(Error::format).toList(),
+            "IncrementalLexingFSM produced different errors than a full relex of '%s'".formatted(code)
+        );
+    }
+
+    private static String fragments(final Random random, final int count) {
+        StringBuilder code = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            code.append(FRAGMENTS.get(random.nextInt(FRAGMENTS.size())));
+        }
+        return code.toString();
+    }
+}
@@ -2,6 +2,7 @@ package com.andreychh.lox.lexing;
 
 import com.andreychh.lox.Position;
 import com.andreychh.lox.error.Error;
+import com.andreychh.lox.lexing.monitor.SilentMonitor;
 import com.andreychh.lox.source.TextSource;
 import com.andreychh.lox.token.ExplicitToken;
 import com.andreychh.lox.token.Token;
@@ -165,4 +166,57 @@ class LexingFSMTest {
             "Token after whitespace must have correct position"
         );
     }
+
+    /**
+     * FSM gives repeated identifiers one symbol and one canonical lexeme.
+     */
+    @Test
+    void internsRepeatedIdentifiers() {
+        List<Token> tokens = new LexingFSM(new TextSource("foo bar foo")).tokenize().tokens();
+        assertEquals(
+            List.of(0, 1, 0),
+            List.of(tokens.get(0).symbol(), tokens.get(1).symbol(), tokens.get(2).symbol()),
+            "Repeated identifier must carry the symbol of its first occurrence"
+        );
+    }
+
+    /**
+     * FSM stops lexing at the first error beyond the limit, says so and still ends with an EOF token.
+     */
+    @Test
+    void stopsAtFirstErrorBeyondLimit() {
+        LexingResult result = new LexingFSM(new TextSource("@ a @ b @ c"), new SilentMonitor(), 2).tokenize();
+        assertEquals(
+            List.of(
+                List.of("Error: Unexpected character '@'. at 1:1", "Error: Unexpected character '@'. at 1:5",
+                    "Error: Too many errors (2), lexing stopped. at 1:9"),
+                List.of(
+                    new ExplicitToken(TokenType.IDENTIFIER, "a", new Position(1, 3)),
+                    new ExplicitToken(TokenType.IDENTIFIER, "b", new Position(1, 7)),
+                    new ExplicitToken(TokenType.EOF, "", new Position(1, 9))
+                )
+            ),
+            List.of(result.errors().stream().map(Error::format).toList(), result.tokens()),
+            "FSM must stop at the first error beyond the limit with a final error and an EOF token"
+        );
+    }
+
+    /**
+     * FSM lexes to the end input whose errors reach the limit exactly.
+     */
+    @Test
+    void lexesToEndWhenLimitIsReachedAtEndOfInput() {
+        LexingResult result = new LexingFSM(new TextSource("@ a @"), new SilentMonitor(), 2).tokenize();
+        assertEquals(
+            List.of(
+                List.of("Error: Unexpected character '@'. at 1:1", "Error: Unexpected character '@'. at 1:5"),
+                List.of(
+                    new ExplicitToken(TokenType.IDENTIFIER, "a", new Position(1, 3)),
+                    new ExplicitToken(TokenType.EOF, "", new Position(1, 6))
+                )
+            ),
+            List.of(result.errors().stream().map(Error::format).toList(), result.tokens()),
+            "FSM must not stop when the last error of the input reaches the limit"
+        );
+    }
 }
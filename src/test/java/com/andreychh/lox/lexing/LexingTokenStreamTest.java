@@ -0,0 +1,84 @@
+package com.andreychh.lox.lexing;
+
+import com.andreychh.lox.Position;
+import com.andreychh.lox.error.Error;
+import com.andreychh.lox.source.TextSource;
+import com.andreychh.lox.token.ExplicitToken;
+import com.andreychh.lox.token.TokenType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link LexingTokenStream}.
+ */
+final class LexingTokenStreamTest {
+    @Test
+    void yieldsSameTokensAsFSM() {
+        String code = "var x = (1.5 + y) >= \"s\"; // done\n@ print x;";
+        LexingTokenStream stream = new LexingTokenStream(new TextSource(code));
+        List<?> expected = new LexingFSM(new TextSource(code)).tokenize().tokens();
+        assertEquals(
+            expected,
+            stream.consume(expected.size()).consumed(),
+            "LexingTokenStream yields different tokens than LexingFSM"
+        );
+    }
+
+    @Test
+    void cannotLookaheadPastEOF() {
+        assertFalse(
+            new LexingTokenStream(new TextSource("a")).canLookahead(3),
+            "LexingTokenStream can lookahead past the EOF token"
+        );
+    }
+
+    @Test
+    void canLookaheadUpToEOF() {
+        assertTrue(
+            new LexingTokenStream(new TextSource("a")).canLookahead(2),
+            "LexingTokenStream cannot lookahead up to the EOF token"
+        );
+    }
+
+    @Test
+    void advancedStreamLooksAheadFromNewPosition() {
+        assertEquals(
+            new ExplicitToken(TokenType.PLUS, "+", new Position(1, 3)),
+            new LexingTokenStream(new TextSource("1 + 2")).advance(1).lookahead(0),
+            "LexingTokenStream advance does not return stream at the correct position"
+        );
+    }
+
+    @Test
+    void sharesTokensBetweenStreams() {
+        LexingTokenStream stream = new LexingTokenStream(new TextSource("a b"));
+        assertTrue(
+            stream.advance(1).lookahead(0) == stream.lookahead(1),
+            "LexingTokenStream lexes the same token twice"
+        );
+    }
+
+    @Test
+    void carriesErrorsForward() {
+        assertEquals(
+            List.of(new Error("Unexpected character '@'.", new Position(1, 1)).format()),
+            new LexingTokenStream(new TextSource("@ a b")).advance(2).errors().stream().map(Error::format).toList(),
+            "LexingTokenStream lost lexing errors"
+        );
+    }
+
+    @Test
+    void lookaheadMatchesExpectedTypes() {
+        assertTrue(
+            new LexingTokenStream(new TextSource("-1")).lookaheadMatches(
+                new TokenType[][]{{TokenType.MINUS, TokenType.BANG}, {TokenType.NUMBER}}
+            ),
+            "LexingTokenStream lookaheadMatches returns false for matching types"
+        );
+    }
+}
@@ -0,0 +1,82 @@
+package com.andreychh.lox.lexing;
+
+import com.andreychh.lox.error.Error;
+import com.andreychh.lox.lexing.monitor.SilentMonitor;
+import com.andreychh.lox.source.TextSource;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Differential tests for {@link ParallelLexingFSM} against {@link LexingFSM}.
+ */
+final class ParallelLexingFSMTest {
+    private static final int LIMIT = 5;
+    private static final List<String> FRAGMENTS = List.of(
+        "var", " ", "x", "=", "12.5", ";", "\n", "\"", "\"multi\nline\"", "// comment \"quote\n", "/", "@",
+        "print", "(", ")", ">=", "!", "\"//not a comment\"", "\t", "and", "7", ".",
+        "\"esc\\\"aped\nquote\"", "\\"
+    );
+
+    @ParameterizedTest
+    @ValueSource(longs = {1L, 2L, 3L, 5L, 8L, 13L, 21L, 34L, 55L, 89L})
+    void producesSameTokensAsSequentialLexer(final long seed) {
+        String code = ParallelLexingFSMTest.script(seed);
+        assertEquals(
+            new LexingFSM(new TextSource(code)).tokenize().tokens(),
+            new ParallelLexingFSM(code, 8, ForkJoinPool.commonPool()).tokenize().tokens(),
+            "ParallelLexingFSM produced different tokens than LexingFSM for seed %d".formatted(seed)
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {1L, 2L, 3L, 5L, 8L, 13L, 21L, 34L, 55L, 89L})
+    void producesSameErrorsAsSequentialLexer(final long seed) {
+        String code = ParallelLexingFSMTest.script(seed);
+        assertEquals(
+            new LexingFSM(new TextSource(code)).tokenize().errors().stream().map(Error::format).toList(),
+            new ParallelLexingFSM(code, 8, ForkJoinPool.commonPool()).tokenize().errors().stream()
+                .map(Error::format).toList(),
+            "ParallelLexingFSM produced different errors than LexingFSM for seed %d".formatted(seed)
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {1L, 2L, 3L, 5L, 8L, 13L, 21L, 34L, 55L, 89L})
+    void stopsAtSameErrorAsSequentialLexer(final long seed) {
+        String code = ParallelLexingFSMTest.script(seed);
+        LexingResult sequential = new LexingFSM(new TextSource(code), new SilentMonitor(), LIMIT).tokenize();
+        LexingResult parallel = new ParallelLexingFSM(
+            code, 8, ForkJoinPool.commonPool(), new SilentMonitor(), LIMIT
+        ).tokenize();
+        assertEquals(
+            List.of(sequential.tokens(), sequential.errors().stream().map(Error::format).toList()),
+            List.of(parallel.tokens(), parallel.errors().stream().map(Error::format).toList()),
+            "ParallelLexingFSM stopped at a different error than LexingFSM for seed %d".formatted(seed)
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "\n", "a\nb", "\"open\nnever\nclosed", "// only a comment\n"})
+    void handlesEdgeCases(final String code) {
+        assertEquals(
+            new LexingFSM(new TextSource(code)).tokenize().tokens(),
+            new ParallelLexingFSM(code, 1, ForkJoinPool.commonPool()).tokenize().tokens(),
+            "ParallelLexingFSM produced different tokens than LexingFSM for an edge case"
+        );
+    }
+
+    private static String script(final long seed) {
+        Random random = new Random(seed);
+        StringBuilder code = new StringBuilder();
+        for (int i = 0; i < 400; i++) {
+            code.append(FRAGMENTS.get(random.nextInt(FRAGMENTS.size())));
+        }
+        return code.toString();
+    }
+}
@@ -0,0 +1,28 @@
+package com.andreychh.lox.lexing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for {@link TextEdit}.
+ */
+final class TextEditTest {
+    @Test
+    void replacesRemovedCharacters() {
+        assertEquals(
+            "var answer = 42;",
+            new TextEdit(4, 1, "answer").applied("var x = 42;").toString(),
+            "TextEdit did not replace the removed characters with the inserted ones"
+        );
+    }
+
+    @Test
+    void measuresChangeInLength() {
+        assertEquals(
+            -2,
+            new TextEdit(0, 3, "a").delta(),
+            "TextEdit miscounted the change in length"
+        );
+    }
+}
@@ -0,0 +1,145 @@
+package com.andreychh.lox.lexing;
+
+import com.andreychh.lox.error.Error;
+import com.andreychh.lox.source.TextSource;
+import com.andreychh.lox.token.TokenType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for {@link TokenCache}.
+ */
+final class TokenCacheTest {
+    private static final String CODE = "var name = \"мир\" + 4.25; // done\n@ name";
+
+    @Test
+    void loadsSameResultAsLexingWithoutLexingAgain(@TempDir final Path directory) {
+        TokenCache cache = new TokenCache(directory, Long.MAX_VALUE);
+        cache.tokenize(TokenCacheTest.bytes(CODE), TokenCacheTest::lexed);
+        LexingResult loaded = cache.tokenize(
+            TokenCacheTest.bytes(CODE),
+            text -> {
+                throw new AssertionError("TokenCache lexed content it had already cached");
+            }
+        );
+        TokenCacheTest.assertSameAsLexed(loaded);
+    }
+
+    @Test
+    void loadsStringValuesAndNamesSharingSymbols(@TempDir final Path directory) {
+        String code = "print \"x\"; x; print \"a\\tb\";";
+        TokenCache cache = new TokenCache(directory, Long.MAX_VALUE);
+        cache.tokenize(TokenCacheTest.bytes(code), TokenCacheTest::lexed);
+        assertEquals(
+            TokenCacheTest.values(TokenCacheTest.lexed(code)),
+            TokenCacheTest.values(cache.tokenize(TokenCacheTest.bytes(code), TokenCacheTest::lexed)),
+            "TokenCache loaded different lexemes or string values than the lexer produced"
+        );
+    }
+
+    @Test
+    void relexesDamagedEntry(@TempDir final Path directory) throws IOException {
+        TokenCache cache = new TokenCache(directory, Long.MAX_VALUE);
+        cache.tokenize(TokenCacheTest.bytes(CODE), TokenCacheTest::lexed);
+        Files.write(TokenCacheTest.entries(directory).getFirst(), new byte[]{1, 2, 3});
+        TokenCacheTest.assertSameAsLexed(cache.tokenize(TokenCacheTest.bytes(CODE), TokenCacheTest::lexed));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {-1, Integer.MAX_VALUE})
+    void relexesEntryWithInvalidLength(final int length, @TempDir final Path directory) throws IOException {
+        TokenCache cache = new TokenCache(directory, Long.MAX_VALUE);
+        cache.tokenize(TokenCacheTest.bytes(CODE), TokenCacheTest::lexed);
+        Path entry = TokenCacheTest.entries(directory).getFirst();
+        byte[] damaged = Files.readAllBytes(entry);
+        ByteBuffer.wrap(damaged).putInt(3 * Integer.BYTES, length);
+        Files.write(entry, damaged);
+        TokenCacheTest.assertSameAsLexed(cache.tokenize(TokenCacheTest.bytes(CODE), TokenCacheTest::lexed));
+    }
+
+    @Test
+    void returnsLexedResultWhenDirectoryCannotBeWritten(@TempDir final Path directory) throws IOException {
+        Path blocked = Files.createFile(directory.resolve("blocked"));
+        TokenCacheTest.assertSameAsLexed(
+            new TokenCache(blocked, Long.MAX_VALUE).tokenize(TokenCacheTest.bytes(CODE), TokenCacheTest::lexed)
+        );
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntries(@TempDir final Path directory) throws IOException {
+        TokenCache unbounded = new TokenCache(directory, Long.MAX_VALUE);
+        unbounded.tokenize(TokenCacheTest.bytes("var a = 1;"), TokenCacheTest::lexed);
+        Path first = TokenCacheTest.entries(directory).getFirst();
+        unbounded.tokenize(TokenCacheTest.bytes("var b = 2;"), TokenCacheTest::lexed);
+        Files.setLastModifiedTime(first, FileTime.fromMillis(0));
+        new TokenCache(directory, Files.size(first) * 2).tokenize(
+            TokenCacheTest.bytes("var c = 3;"),
+            TokenCacheTest::lexed
+        );
+        assertEquals(
+            List.of(2, false),
+            List.of(TokenCacheTest.entries(directory).size(), Files.exists(first)),
+            "TokenCache did not evict exactly the least recently used entry"
+        );
+    }
+
+    @Test
+    void keepsResultsOfDifferentOptionsApart(@TempDir final Path directory) throws IOException {
+        new TokenCache(directory, Long.MAX_VALUE, "max-errors=1").tokenize(
+            TokenCacheTest.bytes(CODE),
+            TokenCacheTest::lexed
+        );
+        new TokenCache(directory, Long.MAX_VALUE, "max-errors=2").tokenize(
+            TokenCacheTest.bytes(CODE),
+            TokenCacheTest::lexed
+        );
+        assertEquals(
+            2,
+            TokenCacheTest.entries(directory).size(),
+            "TokenCache shared an entry between different lexing options"
+        );
+    }
+
+    private static void assertSameAsLexed(final LexingResult result) {
+        LexingResult lexed = TokenCacheTest.lexed(CODE);
+        assertEquals(lexed.tokens(), result.tokens(), "TokenCache returned different tokens than the lexer");
+        assertEquals(
+            lexed.errors().stream().map(Error::format).toList(),
+            result.errors().stream().map(Error::format).toList(),
+            "TokenCache returned different errors than the lexer"
+        );
+    }
+
+    private static List<String> values(final LexingResult result) {
+        return result.tokens().stream()
+            .map(token -> token.type() == TokenType.STRING ? token.lexeme() + '=' + token.string() : token.lexeme())
+            .toList();
+    }
+
+    private static LexingResult lexed(final CharSequence text) {
+        return new LexingFSM(new TextSource(text)).tokenize();
+    }
+
+    private static ByteBuffer bytes(final String code) {
+        return ByteBuffer.wrap(code.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<Path> entries(final Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.toList();
+        }
+    }
+}
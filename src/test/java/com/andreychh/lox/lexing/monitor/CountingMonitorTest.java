@@ -0,0 +1,75 @@
+package com.andreychh.lox.lexing.monitor;
+
+import com.andreychh.lox.lexing.LexingFSM;
+import com.andreychh.lox.lexing.LexingResult;
+import com.andreychh.lox.lexing.ParallelLexingFSM;
+import com.andreychh.lox.source.TextSource;
+import com.andreychh.lox.token.Token;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link CountingMonitor}.
+ */
+final class CountingMonitorTest {
+    @Test
+    void countsTokensByType() {
+        CountingMonitor stats = new CountingMonitor();
+        new LexingFSM(new TextSource("var x = 1 + y;"), stats).tokenize();
+        assertEquals(
+            Map.of("VAR", 1L, "IDENTIFIER", 2L, "EQUAL", 1L, "NUMBER", 1L, "PLUS", 1L, "SEMICOLON", 1L, "EOF", 1L),
+            stats.getTokenTypes(),
+            "CountingMonitor did not count the tokens of each type"
+        );
+    }
+
+    @Test
+    void countsCharactersAndRuns() {
+        CountingMonitor stats = new CountingMonitor();
+        new LexingFSM(new TextSource("print 1;"), stats).tokenize();
+        new LexingFSM(new TextSource("x"), stats).tokenize();
+        assertEquals(
+            "2 runs, 9 characters",
+            "%d runs, %d characters".formatted(stats.getRuns(), stats.getCharacters()),
+            "CountingMonitor did not count every run and its characters"
+        );
+    }
+
+    @Test
+    void countsOneTransitionPerStep() {
+        CountingMonitor stats = new CountingMonitor();
+        new LexingFSM(new TextSource("a = \"b\";"), stats).tokenize();
+        assertTrue(
+            stats.getTransitions().keySet().containsAll(List.of("InitialState", "StringState")),
+            "CountingMonitor did not count transitions by the class of the state"
+        );
+    }
+
+    @Test
+    void countsPositionResolutions() {
+        CountingMonitor stats = new CountingMonitor();
+        LexingResult result = new LexingFSM(new TextSource("a\nb"), stats).tokenize();
+        result.tokens().forEach(Token::toString);
+        assertEquals(
+            3L,
+            stats.getPositionResolutions(),
+            "CountingMonitor did not count the positions resolved for the tokens"
+        );
+    }
+
+    @Test
+    void countsEverySegmentOfParallelLexing() {
+        CountingMonitor stats = new CountingMonitor();
+        new ParallelLexingFSM("var a = 1;\nvar b = 2;\n", 4, ForkJoinPool.commonPool(), stats).tokenize();
+        assertTrue(
+            stats.getRuns() > 1 && stats.getCharacters() == 22,
+            "CountingMonitor did not count the segments of parallel lexing"
+        );
+    }
+}
@@ -1,6 +1,7 @@
 package com.andreychh.lox.lexing.state;
 
 import com.andreychh.lox.Position;
+import com.andreychh.lox.error.Error;
 import com.andreychh.lox.lexing.LexingResult;
 import com.andreychh.lox.source.TextSource;
 import com.andreychh.lox.token.ExplicitToken;
@@ -11,6 +12,7 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.util.List;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -68,6 +70,21 @@ final class InitialStateTest {
         );
     }
 
+    @Test
+    void skipsIndentedCommentsInOneTransition() {
+        assertEquals(
+            new ExplicitToken(TokenType.SLASH, "/", new Position(3, 3)),
+            new InitialState(new TextSource("  // one\n\t// two\n  / 2"), new LexingResult())
+                .next()
+                .next()
+                .next()
+                .collectResult()
+                .tokens()
+                .get(0),
+            "InitialState did not skip whitespace and comments in a single transition"
+        );
+    }
+
 
     @ParameterizedTest
     @ValueSource(strings = {"!", "=", ">", "<"})
@@ -91,4 +108,19 @@ final class InitialStateTest {
             "InitialState did not add error for unexpected character"
         );
     }
+
+    @Test
+    void coalescesRunOfUnexpectedCharactersIntoOneRangedError() {
+        assertEquals(
+            List.of("Error: Unexpected characters '@#$'. at 1:1-1:3"),
+            new InitialState(new TextSource("@#$ a"), new LexingResult())
+                .next()
+                .collectResult()
+                .errors()
+                .stream()
+                .map(Error::format)
+                .toList(),
+            "InitialState did not report a run of unexpected characters as one ranged error"
+        );
+    }
 }
@@ -0,0 +1,42 @@
+package com.andreychh.lox.lexing.state;
+
+import com.andreychh.lox.source.TextSource;
+import com.andreychh.lox.token.TokenType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for {@link Keywords}.
+ */
+final class KeywordsTest {
+    @Test
+    void recognizesKeywordFollowedByOtherCharacters() {
+        assertEquals(
+            TokenType.FUN,
+            new Keywords().type(new TextSource("fun("), 3),
+            "Keywords failed to recognize a keyword followed by other characters"
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"f", "fo", "form", "classy", "truth", "And", "_and", "zebra"})
+    void treatsNonKeywordsAsIdentifiers(String identifier) {
+        assertEquals(
+            TokenType.IDENTIFIER,
+            new Keywords().type(new TextSource(identifier), identifier.length()),
+            "Keywords recognized '%s' as a keyword".formatted(identifier)
+        );
+    }
+
+    @Test
+    void considersOnlyGivenLength() {
+        assertEquals(
+            TokenType.FOR,
+            new Keywords().type(new TextSource("fort"), 3),
+            "Keywords looked beyond the given identifier length"
+        );
+    }
+}
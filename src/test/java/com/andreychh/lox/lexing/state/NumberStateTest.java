@@ -6,6 +6,8 @@ import com.andreychh.lox.source.TextSource;
 import com.andreychh.lox.token.ExplicitToken;
 import com.andreychh.lox.token.TokenType;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -90,4 +92,22 @@ final class NumberStateTest {
             "NumberState does not create number token from input with double dots"
         );
     }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "0", "42", "042.000", "0.1", "3.14159", "123456789012345", "1234567.89012345", "0.30000000000000004",
+        "99999999999999999999",
+    })
+    void decodesSameValueAsParseDouble(String literal) {
+        assertEquals(
+            Double.parseDouble(literal),
+            new NumberState(new TextSource(literal), new LexingResult())
+                .next()
+                .collectResult()
+                .tokens()
+                .get(0)
+                .number(),
+            "NumberState decoded a value different from Double.parseDouble"
+        );
+    }
 }
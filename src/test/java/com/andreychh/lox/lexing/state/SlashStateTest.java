@@ -87,4 +87,18 @@ final class SlashStateTest {
             "SlashState should not create token for double slash followed immediately by newline"
         );
     }
+
+    @Test
+    void skipsFollowingCommentLinesWithComment() {
+        assertEquals(
+            new ExplicitToken(TokenType.PLUS, "+", new Position(3, 1)),
+            new SlashState(new TextSource("// one\n  // two\n+"), new LexingResult())
+                .next()
+                .next()
+                .collectResult()
+                .tokens()
+                .get(0),
+            "SlashState did not skip the comment lines following a comment"
+        );
+    }
 }
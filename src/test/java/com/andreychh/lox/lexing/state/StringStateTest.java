@@ -77,4 +77,45 @@ final class StringStateTest {
             "StringState does not handle Unicode characters in string literal"
         );
     }
+
+    @Test
+    void keepsEscapedQuoteInsideLiteral() {
+        assertEquals(
+            new ExplicitToken(TokenType.STRING, "\"say \\\"hi\\\"\"", new Position(1, 1)),
+            new StringState(new TextSource("\"say \\\"hi\\\"\" + x"), new LexingResult())
+                .next()
+                .collectResult()
+                .tokens()
+                .get(0),
+            "StringState ended the literal at an escaped quote"
+        );
+    }
+
+    @Test
+    void internsDecodedValue() {
+        assertEquals(
+            "tab\there",
+            new StringState(new TextSource("\"tab\\there\""), new LexingResult())
+                .next()
+                .collectResult()
+                .tokens()
+                .get(0)
+                .string(),
+            "StringState did not give the token the decoded value of the literal"
+        );
+    }
+
+    @Test
+    void reportsInvalidEscapeAtBackslash() {
+        assertEquals(
+            "Error: Invalid escape sequence in string literal at 1:4",
+            new StringState(new TextSource("\"ab\\q\""), new LexingResult())
+                .next()
+                .collectResult()
+                .errors()
+                .get(0)
+                .format(),
+            "StringState did not report the invalid escape where it starts"
+        );
+    }
 }
@@ -0,0 +1,74 @@
+package com.andreychh.lox.source;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link CharClass}.
+ */
+final class CharClassTest {
+    @ParameterizedTest
+    @ValueSource(chars = {'0', '5', '9'})
+    void containsCharactersOfRange(char character) {
+        assertTrue(
+            new CharClass('0', '9').contains(character),
+            "CharClass does not contain a character of its range"
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(chars = {'/', ':', 'a', '٠'})
+    void doesNotContainCharactersOutsideRange(char character) {
+        assertFalse(
+            new CharClass('0', '9').contains(character),
+            "CharClass contains a character outside of its range"
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(chars = {'_', '~', '\u007f'})
+    void containsListedMembersFromBothAsciiWords(char character) {
+        assertTrue(
+            new CharClass("_~\u007f").contains(character),
+            "CharClass does not contain a listed member"
+        );
+    }
+
+    @Test
+    void containsNonAsciiCharactersOfRange() {
+        assertTrue(
+            new CharClass('а', 'я').contains('ж'),
+            "CharClass does not contain a non-ASCII character of its range"
+        );
+    }
+
+    @Test
+    void containsMembersOfBothClassesInUnion() {
+        CharClass union = new CharClass('a', 'z').union(new CharClass("_"));
+        assertTrue(
+            union.contains('q') && union.contains('_'),
+            "CharClass union does not contain members of both classes"
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(chars = {'a', '\n', 'é', '\uD83D'})
+    void negatedClassContainsEverythingButMembers(char character) {
+        assertTrue(
+            new CharClass("\"").negated().contains(character),
+            "Negated CharClass does not contain a non-member"
+        );
+    }
+
+    @Test
+    void negatedClassDoesNotContainMembers() {
+        assertFalse(
+            new CharClass("\"").negated().contains('"'),
+            "Negated CharClass contains a member of the original class"
+        );
+    }
+}
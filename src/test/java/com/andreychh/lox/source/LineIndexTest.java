@@ -0,0 +1,56 @@
+package com.andreychh.lox.source;
+
+import com.andreychh.lox.Position;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for {@link LineIndex}.
+ */
+final class LineIndexTest {
+    @Test
+    void resolvesStartOfTextToFirstLineAndColumn() {
+        assertEquals(
+            new Position(1, 1),
+            new LineIndex("abc").position(0),
+            "LineIndex failed to resolve the start of the text"
+        );
+    }
+
+    @Test
+    void resolvesColumnWithinFirstLine() {
+        assertEquals(
+            new Position(1, 3),
+            new LineIndex("abc").position(2),
+            "LineIndex failed to resolve a column within the first line"
+        );
+    }
+
+    @Test
+    void resolvesOffsetOfLineFeedToTheLineItEnds() {
+        assertEquals(
+            new Position(1, 2),
+            new LineIndex("a\nb").position(1),
+            "LineIndex failed to resolve the offset of a line feed"
+        );
+    }
+
+    @Test
+    void resolvesOffsetOnLaterLine() {
+        assertEquals(
+            new Position(3, 2),
+            new LineIndex("a\n\nbc").position(4),
+            "LineIndex failed to resolve an offset on a later line"
+        );
+    }
+
+    @Test
+    void resolvesEndOfTextAfterTrailingLineFeed() {
+        assertEquals(
+            new Position(2, 1),
+            new LineIndex("ab\n").position(3),
+            "LineIndex failed to resolve the end of the text after a trailing line feed"
+        );
+    }
+}
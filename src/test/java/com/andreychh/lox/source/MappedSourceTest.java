@@ -0,0 +1,53 @@
+package com.andreychh.lox.source;
+
+import com.andreychh.lox.Position;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Tests for {@link MappedSource}.
+ */
+final class MappedSourceTest {
+    @Test
+    void takesDecodedNonAsciiFragment() {
+        assertEquals(
+            "\"мир\"",
+            new MappedSource(ByteBuffer.wrap("x = \"мир\";".getBytes(StandardCharsets.UTF_8)))
+                .skip(4)
+                .take(5)
+                .value(),
+            "MappedSource failed to take a decoded non-ASCII fragment"
+        );
+    }
+
+    @Test
+    void peeksCharacterAfterMultiByteSequence() {
+        assertEquals(
+            ';',
+            new MappedSource(ByteBuffer.wrap("ж;".getBytes(StandardCharsets.UTF_8))).peekChar(1),
+            "MappedSource counts bytes instead of characters"
+        );
+    }
+
+    @Test
+    void resolvesPositionInCharacters() {
+        assertEquals(
+            new Position(2, 3),
+            new MappedSource(ByteBuffer.wrap("ы\nюя+".getBytes(StandardCharsets.UTF_8))).skip(4).position(),
+            "MappedSource failed to resolve the position in characters"
+        );
+    }
+
+    @Test
+    void reportsEndOfInput() {
+        assertFalse(
+            new MappedSource(ByteBuffer.wrap("ab".getBytes(StandardCharsets.UTF_8))).skip(2).hasNext(1),
+            "MappedSource reports characters beyond the end of input"
+        );
+    }
+}
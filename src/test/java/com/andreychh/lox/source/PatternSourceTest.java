@@ -8,10 +8,12 @@ import static org.junit.jupiter.api.Assertions.*;
  * Tests for {@link PatternSource}.
  */
 class PatternSourceTest {
+    private static final CharClass LETTERS = new CharClass('a', 'z');
+
     @Test
     void returnsTrueWhenAllPatternsMatch() {
         assertTrue(
-                new PatternSource(new TextSource("abc")).matches(new String[]{"[a-z]", "[a-z]", "[a-z]"}),
+                new PatternSource(new TextSource("abc")).matches(new CharClass[]{LETTERS, LETTERS, LETTERS}),
                 "PatternSource failed to confirm conformity when all patterns match"
         );
     }
@@ -19,7 +21,7 @@ class PatternSourceTest {
     @Test
     void returnsTrueWhenPrefixMatchesPatterns() {
         assertTrue(
-                new PatternSource(new TextSource("abcdef")).matches(new String[]{"[a-z]", "[a-z]", "[a-z]"}),
+                new PatternSource(new TextSource("abcdef")).matches(new CharClass[]{LETTERS, LETTERS, LETTERS}),
                 "PatternSource must not confirm conformity when only prefix matches patterns"
         );
     }
@@ -27,7 +29,7 @@ class PatternSourceTest {
     @Test
     void returnsFalseWhenAnyPatternDoesNotMatch() {
         assertFalse(
-                new PatternSource(new TextSource("ab1")).matches(new String[]{"[a-z]", "[a-z]", "[a-z]"}),
+                new PatternSource(new TextSource("ab1")).matches(new CharClass[]{LETTERS, LETTERS, LETTERS}),
                 "PatternSource incorrectly confirmed conformity when a pattern does not match"
         );
     }
@@ -35,7 +37,7 @@ class PatternSourceTest {
     @Test
     void returnsFalseWhenNotEnoughCharactersToMatchPatterns() {
         assertFalse(
-                new PatternSource(new TextSource("a")).matches(new String[]{"[a-z]", "[a-z]"}),
+                new PatternSource(new TextSource("a")).matches(new CharClass[]{LETTERS, LETTERS}),
                 "PatternSource incorrectly confirmed conformity when not enough characters"
         );
     }
@@ -44,7 +46,7 @@ class PatternSourceTest {
     void returnsFragmentWithMatchingPrefixWhenTakeIsCalled() {
         assertEquals(
                 "abc",
-                new PatternSource(new TextSource("abc123")).take("[a-z]").value(),
+                new PatternSource(new TextSource("abc123")).take(LETTERS).value(),
                 "PatternSource failed to take the correct matching prefix"
         );
     }
@@ -53,7 +55,7 @@ class PatternSourceTest {
     void returnsEmptyFragmentWhenNoCharactersMatchPattern() {
         assertEquals(
                 "",
-                new PatternSource(new TextSource("123")).take("[a-z]").value(),
+                new PatternSource(new TextSource("123")).take(LETTERS).value(),
                 "PatternSource failed to return an empty fragment when no match"
         );
     }
@@ -62,7 +64,7 @@ class PatternSourceTest {
     void skipsAllMatchingCharactersWhenSkipIsCalled() {
         assertEquals(
                 "BBB",
-                new PatternSource(new TextSource("aaaBBB")).skip("a").take(3).value(),
+                new PatternSource(new TextSource("aaaBBB")).skip(new CharClass("a")).take(3).value(),
                 "PatternSource failed to skip all matching characters"
         );
     }
@@ -71,7 +73,7 @@ class PatternSourceTest {
     void skipsNothingWhenNoCharactersMatchPattern() {
         assertEquals(
                 "1",
-                new PatternSource(new TextSource("123")).skip("[a-z]").peek(0),
+                new PatternSource(new TextSource("123")).skip(LETTERS).peek(0),
                 "PatternSource incorrectly skipped characters when no match"
         );
     }
@@ -80,7 +82,7 @@ class PatternSourceTest {
     void handlesNonAsciiCharactersWhenTakingByPattern() {
         assertEquals(
                 "абв",
-                new PatternSource(new TextSource("абв123")).take("[а-я]").value(),
+                new PatternSource(new TextSource("абв123")).take(new CharClass('а', 'я')).value(),
                 "PatternSource failed to handle non-ASCII characters"
         );
     }
@@ -89,8 +91,17 @@ class PatternSourceTest {
     void returnsWholeTextWhenAllCharactersMatchPattern() {
         assertEquals(
                 "xyz",
-                new PatternSource(new TextSource("xyz")).take("[a-z]").value(),
+                new PatternSource(new TextSource("xyz")).take(LETTERS).value(),
                 "PatternSource failed to take the whole text when all match"
         );
     }
+
+    @Test
+    void countsMatchingPrefixWithoutTakingIt() {
+        assertEquals(
+                3,
+                new PatternSource(new TextSource("abc123")).count(LETTERS),
+                "PatternSource failed to count the matching prefix"
+        );
+    }
 }
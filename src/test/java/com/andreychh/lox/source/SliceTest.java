@@ -0,0 +1,38 @@
+package com.andreychh.lox.source;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for {@link Slice}.
+ */
+final class SliceTest {
+    @Test
+    void readsCharactersOfRange() {
+        assertEquals(
+            "answer",
+            new Slice("var answer = 42;", 4, 10).toString(),
+            "Slice does not hold the characters of its range"
+        );
+    }
+
+    @Test
+    void slicesSubSequenceOfRange() {
+        assertEquals(
+            "ns",
+            new Slice("var answer = 42;", 4, 10).subSequence(1, 3).toString(),
+            "Slice returned a subsequence outside of its range"
+        );
+    }
+
+    @Test
+    void rejectsIndexBeyondRange() {
+        assertThrows(
+            IndexOutOfBoundsException.class,
+            () -> new Slice("abcdef", 1, 3).charAt(2),
+            "Slice let a character beyond its range be read"
+        );
+    }
+}
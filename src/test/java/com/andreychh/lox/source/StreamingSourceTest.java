@@ -0,0 +1,99 @@
+package com.andreychh.lox.source;
+
+import com.andreychh.lox.Position;
+import com.andreychh.lox.lexing.LexingFSM;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for {@link StreamingSource}.
+ */
+final class StreamingSourceTest {
+    @Test
+    void lexesLikeTextSourceAcrossSmallChunks() {
+        String script = "var greeting = \"hello,\nworld\";\n// comment\nif (x >= 12.5) print greeting; @\n";
+        assertEquals(
+            new LexingFSM(new TextSource(script)).tokenize().tokens(),
+            new LexingFSM(new StreamingSource(new StringReader(script), 3)).tokenize().tokens(),
+            "StreamingSource produced different tokens than TextSource"
+        );
+    }
+
+    @Test
+    void takesFragmentSpanningChunks() {
+        assertEquals(
+            "cdefg",
+            new StreamingSource(new StringReader("abcdefgh"), 2).skip(2).take(5).value(),
+            "StreamingSource failed to take a fragment spanning several chunks"
+        );
+    }
+
+    @Test
+    void resolvesPositionOfDiscardedOffset() {
+        Source start = new StreamingSource(new StringReader("a\nbc\nd"), 1).skip(3);
+        start.skip(3).hasNext(1);
+        assertEquals(
+            new Position(2, 2),
+            start.position(),
+            "StreamingSource failed to resolve the position of a discarded offset"
+        );
+    }
+
+    @Test
+    void rejectsReadingDiscardedCharacters() {
+        Source start = new StreamingSource(new StringReader("abcdef"), 2);
+        start.skip(4).hasNext(2);
+        assertThrows(
+            IllegalStateException.class,
+            () -> start.peekChar(0),
+            "StreamingSource read characters that have already been discarded"
+        );
+    }
+
+    @Test
+    void decodesChannelAsUtf8() {
+        assertEquals(
+            "мир",
+            new StreamingSource(
+                Channels.newChannel(new ByteArrayInputStream("мир!".getBytes(StandardCharsets.UTF_8)))
+            ).take(3).value(),
+            "StreamingSource failed to decode the channel as UTF-8"
+        );
+    }
+
+    @Test
+    void reportsEndOfInput() {
+        assertFalse(
+            new StreamingSource(new StringReader("ab"), 1).skip(2).hasNext(1),
+            "StreamingSource reports characters beyond the end of input"
+        );
+    }
+
+    @Test
+    void findsCharacterAcrossChunks() {
+        assertEquals(
+            5,
+            new StreamingSource(new StringReader("// abc\nx"), 2).find(1, '\n'),
+            "StreamingSource failed to find the character across chunks"
+        );
+    }
+
+    @Test
+    void resolvesOffsetsAfterWindowMovedPast() {
+        Source source = new StreamingSource(new StringReader("ab\ncd\nef"), 2);
+        source.skip(8).hasNext(1);
+        assertEquals(
+            new Position(2, 2),
+            source.positions().position(4),
+            "StreamingSource failed to resolve an offset whose characters were discarded"
+        );
+    }
+}
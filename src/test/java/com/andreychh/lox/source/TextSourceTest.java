@@ -22,6 +22,16 @@ class TextSourceTest {
         );
     }
 
+    @ParameterizedTest
+    @CsvSource({"0, a", "1, b", "2, c"})
+    void peeksPrimitiveCharacterAtGivenOffset(int offset, char expected) {
+        assertEquals(
+                expected,
+                new TextSource("abc").peekChar(offset),
+                "TextSource failed to peek the primitive character at the given offset"
+        );
+    }
+
     @ParameterizedTest
     @ValueSource(ints = {0, 1, 2, 3})
     void reportsThatItHasEnoughCharacters(int count) {
@@ -146,4 +156,41 @@ class TextSourceTest {
                 "TextSource failed to return an empty fragment for empty input"
         );
     }
+
+    @Test
+    void spansRunOfClassMembers() {
+        assertEquals(
+                4,
+                new TextSource("ab1c d").span(0, new CharClass('a', 'z').union(new CharClass('0', '9'))),
+                "TextSource failed to span the run of class members"
+        );
+    }
+
+    @Test
+    void spanStopsAtRegionEnd() {
+        assertEquals(
+                2,
+                new TextSource("abcd").region(1, 3).span(0, new CharClass('a', 'z')),
+                "TextSource spanned past the end of its region"
+        );
+    }
+
+    @ParameterizedTest
+    @CsvSource({"ab;cd, 2", "abcd, 4"})
+    void findsDistanceToCharacter(String text, int expected) {
+        assertEquals(
+                expected,
+                new TextSource(text).find(0, ';'),
+                "TextSource failed to find the distance to the character"
+        );
+    }
+
+    @Test
+    void findsCharacterInNonStringText() {
+        assertEquals(
+                1,
+                new TextSource(new StringBuilder("x \"y\"")).find(1, '"'),
+                "TextSource failed to find the character in a non-String text"
+        );
+    }
 }
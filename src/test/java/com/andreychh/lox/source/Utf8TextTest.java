@@ -0,0 +1,174 @@
+package com.andreychh.lox.source;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for {@link Utf8Text}.
+ */
+final class Utf8TextTest {
+    private static final String TEXT = "a \"мир\" 🚀 + 你好\nend";
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 3, 5, 8192})
+    void decodesSameCharactersAsString(int block) {
+        assertEquals(
+            TEXT,
+            new Utf8Text(ByteBuffer.wrap(TEXT.getBytes(StandardCharsets.UTF_8)), block).toString(),
+            "Utf8Text decoded characters differ from the original text"
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 3, 8192})
+    void reportsLengthInUtf16Units(int block) {
+        assertEquals(
+            TEXT.length(),
+            new Utf8Text(ByteBuffer.wrap(TEXT.getBytes(StandardCharsets.UTF_8)), block).length(),
+            "Utf8Text reports an incorrect length"
+        );
+    }
+
+    @Test
+    void readsCharactersInAnyOrder() {
+        Utf8Text text = new Utf8Text(ByteBuffer.wrap(TEXT.getBytes(StandardCharsets.UTF_8)), 3);
+        char[] chars = new char[text.length()];
+        for (int i = chars.length - 1; i >= 0; i--) {
+            chars[i] = text.charAt(i);
+        }
+        assertEquals(
+            TEXT,
+            new String(chars),
+            "Utf8Text returns different characters when read backwards"
+        );
+    }
+
+    @Test
+    void readsSameCharactersThroughInterleavedViews() {
+        Utf8Text text = new Utf8Text(ByteBuffer.wrap(TEXT.getBytes(StandardCharsets.UTF_8)), 3);
+        Utf8Text forward = text.view();
+        Utf8Text backward = text.view();
+        StringBuilder expected = new StringBuilder();
+        StringBuilder read = new StringBuilder();
+        for (int i = 0; i < TEXT.length(); i++) {
+            expected.append(TEXT.charAt(i)).append(TEXT.charAt(TEXT.length() - 1 - i));
+            read.append(forward.charAt(i)).append(backward.charAt(TEXT.length() - 1 - i));
+        }
+        assertEquals(
+            expected.toString(),
+            read.toString(),
+            "Utf8Text views returned different characters when read in opposite directions"
+        );
+    }
+
+    @Test
+    void extractsSubSequenceAcrossBlocks() {
+        assertEquals(
+            TEXT.substring(3, 12),
+            new Utf8Text(ByteBuffer.wrap(TEXT.getBytes(StandardCharsets.UTF_8)), 2).subSequence(3, 12).toString(),
+            "Utf8Text extracted an incorrect subsequence"
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {4, 16, 8192})
+    void readsAsciiBlocksAroundDecodedOnes(int block) {
+        String text = "var x = 1;\n".repeat(20) + "print \"мир\";\n" + "var y = 2;\n".repeat(20);
+        Utf8Text decoded = new Utf8Text(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)), block);
+        StringBuilder chars = new StringBuilder();
+        for (int i = 0; i < decoded.length(); i++) {
+            chars.append(decoded.charAt(i));
+        }
+        assertEquals(
+            text,
+            chars.toString(),
+            "Utf8Text read different characters from ASCII blocks next to a non-ASCII one"
+        );
+    }
+
+    @Test
+    void extractsSubSequenceOfAsciiText() {
+        assertEquals(
+            "x = 1",
+            new Utf8Text(ByteBuffer.wrap("var x = 1;".getBytes(StandardCharsets.US_ASCII)))
+                .subSequence(4, 9)
+                .toString(),
+            "Utf8Text extracted an incorrect subsequence of ASCII text"
+        );
+    }
+
+    @Test
+    void reportsZeroLengthForEmptyInput() {
+        assertEquals(
+            0,
+            new Utf8Text(ByteBuffer.wrap(new byte[0])).length(),
+            "Utf8Text reports non-zero length for empty input"
+        );
+    }
+
+    @Test
+    void replacesMalformedInput() {
+        assertEquals(
+            "a�b",
+            new Utf8Text(ByteBuffer.wrap(new byte[]{'a', (byte) 0xFF, 'b'})).toString(),
+            "Utf8Text did not replace malformed input"
+        );
+    }
+
+    @Test
+    void rejectsIndexBeyondLength() {
+        assertThrows(
+            IndexOutOfBoundsException.class,
+            () -> new Utf8Text(ByteBuffer.wrap("ab".getBytes(StandardCharsets.UTF_8))).charAt(2),
+            "Utf8Text did not reject an index beyond its length"
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"BIG_ENDIAN", "LITTLE_ENDIAN"})
+    void findsAsciiCharactersLikeString(String order) {
+        String code = "var answer = 42; // the answer\nprint answer;\n";
+        Utf8Text text = new Utf8Text(
+            ByteBuffer.wrap(code.getBytes(StandardCharsets.UTF_8)).order(
+                "BIG_ENDIAN".equals(order) ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN
+            )
+        );
+        StringBuilder expected = new StringBuilder();
+        StringBuilder found = new StringBuilder();
+        for (char target : "v=;/\nrz".toCharArray()) {
+            for (int from = 0; from < code.length(); from++) {
+                int index = code.indexOf(target, from);
+                expected.append(index < 0 ? code.length() : index).append(' ');
+                found.append(text.find(from, code.length(), target)).append(' ');
+            }
+        }
+        assertEquals(
+            expected.toString(),
+            found.toString(),
+            "Utf8Text found a character at a different index than String"
+        );
+    }
+
+    @Test
+    void findsCharactersInNonAsciiText() {
+        Utf8Text text = new Utf8Text(ByteBuffer.wrap(TEXT.getBytes(StandardCharsets.UTF_8)), 3);
+        assertEquals(
+            List.of(TEXT.indexOf('\n'), TEXT.indexOf('好'), TEXT.length()),
+            List.of(
+                text.find(0, TEXT.length(), '\n'),
+                text.find(0, TEXT.length(), '好'),
+                text.find(0, TEXT.length(), '#')
+            ),
+            "Utf8Text found a character at a different index in non-ASCII text"
+        );
+    }
+}
@@ -0,0 +1,39 @@
+package com.andreychh.lox.token;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for {@link StringLiteral}.
+ */
+final class StringLiteralTest {
+    @ParameterizedTest
+    @CsvSource(value = {
+        "\"\"|''",
+        "\"plain\"|plain",
+        "\"a\\\"b\"|a\"b",
+        "\"back\\\\slash\"|back\\slash",
+        "\"\\u0041\\u00e9\"|Aé",
+        "\"bad \\q\"|bad \\q",
+        "\"short \\u12\"|short \\u12",
+    }, delimiter = '|')
+    void decodesValue(final String lexeme, final String value) {
+        assertEquals(
+            value,
+            new StringLiteral(lexeme).value(),
+            "StringLiteral decoded a wrong value from %s".formatted(lexeme)
+        );
+    }
+
+    @Test
+    void decodesControlCharacters() {
+        assertEquals(
+            "line\nand\ttab",
+            new StringLiteral("\"line\\nand\\ttab\"").value(),
+            "StringLiteral did not decode the escapes of control characters"
+        );
+    }
+}
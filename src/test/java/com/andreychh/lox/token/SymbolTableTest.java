@@ -0,0 +1,68 @@
+package com.andreychh.lox.token;
+
+import com.andreychh.lox.source.Source;
+import com.andreychh.lox.source.TextSource;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Tests for {@link SymbolTable}.
+ */
+final class SymbolTableTest {
+    @Test
+    void assignsDenseIdsInOrderOfFirstOccurrence() {
+        SymbolTable symbols = new SymbolTable();
+        Source source = new TextSource("x yy x yy z");
+        assertEquals(
+            List.of(0, 1, 0, 1, 2),
+            List.of(
+                symbols.intern(source, 1),
+                symbols.intern(source.skip(2), 2),
+                symbols.intern(source.skip(5), 1),
+                symbols.intern(source.skip(7), 2),
+                symbols.intern(source.skip(10), 1)
+            ),
+            "SymbolTable did not give equal names one id and distinct names consecutive ids"
+        );
+    }
+
+    @Test
+    void returnsCanonicalName() {
+        SymbolTable symbols = new SymbolTable();
+        Source source = new TextSource("name name");
+        symbols.intern(source, 4);
+        assertSame(
+            symbols.name(symbols.intern(source.skip(5), 4)),
+            symbols.name(0),
+            "SymbolTable returned different strings for one name"
+        );
+    }
+
+    @Test
+    void keepsNamesWhileGrowing() {
+        SymbolTable symbols = new SymbolTable();
+        List<String> names = IntStream.range(0, 1000).mapToObj(i -> "name" + i).toList();
+        names.forEach(symbols::intern);
+        assertEquals(
+            names,
+            names.stream().map(name -> symbols.name(symbols.intern(name))).toList(),
+            "SymbolTable lost names while growing"
+        );
+    }
+
+    @Test
+    void internsNameAtOffsetOfSource() {
+        SymbolTable symbols = new SymbolTable();
+        int quoted = symbols.intern(new TextSource("\"value\""), 1, 5);
+        assertEquals(
+            symbols.intern("value"),
+            quoted,
+            "SymbolTable did not intern the characters at the given offset of the source"
+        );
+    }
+}
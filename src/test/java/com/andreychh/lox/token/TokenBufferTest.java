@@ -0,0 +1,134 @@
+package com.andreychh.lox.token;
+
+import com.andreychh.lox.Position;
+import com.andreychh.lox.source.Source;
+import com.andreychh.lox.source.TextSource;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for {@link TokenBuffer}.
+ */
+final class TokenBufferTest {
+    @Test
+    void exposesTokensEqualToExplicitOnes() {
+        Source source = new TextSource("var\n  x");
+        assertEquals(
+            List.of(
+                new ExplicitToken(TokenType.VAR, "var", new Position(1, 1)),
+                new ExplicitToken(TokenType.IDENTIFIER, "x", new Position(2, 3))
+            ),
+            new TokenBuffer()
+                .with(TokenType.VAR, source, 3)
+                .with(TokenType.IDENTIFIER, source.skip(6), 1)
+                .asList(),
+            "TokenBuffer exposed tokens different from the appended spans"
+        );
+    }
+
+    @Test
+    void printsTokensLikeExplicitOnes() {
+        Source source = new TextSource("print x");
+        assertEquals(
+            new ExplicitToken(TokenType.IDENTIFIER, "x", new Position(1, 7)).toString(),
+            new TokenBuffer().with(TokenType.IDENTIFIER, source.skip(6), 1).asList().getFirst().toString(),
+            "TokenBuffer exposed a token printed differently from an explicit one"
+        );
+    }
+
+    @Test
+    void keepsNumberValuesAcrossVersionsAndAppends() {
+        Source source = new TextSource("1 x 2 3");
+        TokenBuffer base = new TokenBuffer().withNumber(source, 1, 1.0).with(TokenType.IDENTIFIER, source.skip(2), 1);
+        TokenBuffer first = base.withNumber(source.skip(4), 1, 2.0);
+        TokenBuffer second = base.withNumber(source.skip(4), 1, 3.0);
+        TokenBuffer joined = new TokenBuffer().withNumber(source, 1, 0.5).withAll(second.prefix(1));
+        assertEquals(
+            List.of(1.0, 2.0, 3.0, 0.5, 1.0),
+            List.of(
+                first.asList().get(0).number(),
+                first.asList().get(2).number(),
+                second.asList().get(2).number(),
+                joined.asList().get(0).number(),
+                joined.asList().get(1).number()
+            ),
+            "TokenBuffer mixed up the values of numeric literals between versions"
+        );
+    }
+
+    @Test
+    void keepsVersionsIndependent() {
+        Source source = new TextSource("a b c");
+        TokenBuffer shared = new TokenBuffer().with(TokenType.IDENTIFIER, source, 1);
+        shared.with(TokenType.IDENTIFIER, source.skip(2), 1);
+        assertEquals(
+            "c",
+            shared.with(TokenType.IDENTIFIER, source.skip(4), 1).asList().get(1).lexeme(),
+            "TokenBuffer let one version overwrite a token of another"
+        );
+    }
+
+    @Test
+    void growsBeyondInitialCapacity() {
+        Source source = new TextSource("x".repeat(100));
+        TokenBuffer buffer = new TokenBuffer();
+        for (int i = 0; i < 100; i++) {
+            buffer = buffer.with(TokenType.IDENTIFIER, source.skip(i), 1);
+        }
+        assertEquals(
+            new ExplicitToken(TokenType.IDENTIFIER, "x", new Position(1, 100)),
+            buffer.asList().get(99),
+            "TokenBuffer lost tokens while growing"
+        );
+    }
+
+    @Test
+    void appendsPrefixOfAnotherBuffer() {
+        Source source = new TextSource("a b c");
+        TokenBuffer tail = new TokenBuffer()
+            .with(TokenType.IDENTIFIER, source.skip(2), 1)
+            .with(TokenType.IDENTIFIER, source.skip(4), 1);
+        assertEquals(
+            List.of("a", "b"),
+            new TokenBuffer()
+                .with(TokenType.IDENTIFIER, source, 1)
+                .withAll(tail.prefix(1))
+                .asList().stream().map(Token::lexeme).toList(),
+            "TokenBuffer failed to append the prefix of another buffer"
+        );
+    }
+
+    @Test
+    void exposesTextWithoutCopying() {
+        Source source = new TextSource("print 42;");
+        assertEquals(
+            0,
+            CharSequence.compare(
+                "42",
+                new TokenBuffer().with(TokenType.NUMBER, source.skip(6), 2).asList().getFirst().text()
+            ),
+            "TokenBuffer exposed text different from the lexeme"
+        );
+    }
+
+    @Test
+    void keepsWriterAndBufferReadFromItIndependent() {
+        TokenBuffer.Writer writer = new TokenBuffer.Writer(new TextSource("a b c"), new SymbolTable());
+        writer.write(TokenType.IDENTIFIER, 0, 1, SymbolTable.NONE, Double.NaN);
+        TokenBuffer appended = writer.buffer().with(TokenType.IDENTIFIER, new TextSource("a b c").skip(2), 1);
+        writer.write(TokenType.NUMBER, 4, 1, SymbolTable.NONE, 1.0);
+        assertEquals(
+            List.of("a", "b", "a", "c"),
+            List.of(
+                appended.asList().get(0).text().toString(),
+                appended.asList().get(1).text().toString(),
+                writer.buffer().asList().get(0).text().toString(),
+                writer.buffer().asList().get(1).text().toString()
+            ),
+            "TokenBuffer let a version read from a writer and the writer append into the same rows"
+        );
+    }
+}